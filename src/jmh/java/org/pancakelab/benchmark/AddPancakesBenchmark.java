@@ -0,0 +1,64 @@
+package org.pancakelab.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pancakelab.model.PancakeOperationResult;
+import org.pancakelab.service.PancakeService;
+
+/**
+ * {@link PancakeService#addPancakes} for different pancake counts per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AddPancakesBenchmark {
+
+    @Param({ "1", "10", "100" })
+    int count;
+
+    PancakeService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = Benchmarks.newService();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadOrder {
+        UUID orderId;
+        int pancakes;
+    }
+
+    /**
+     * Orders hold at most {@value Benchmarks#MAX_PANCAKES_PER_ORDER} pancakes, so a full order is
+     * cancelled and replaced; that cost is amortized over the calls that filled it.
+     */
+    @Benchmark
+    public PancakeOperationResult addPancakes(ThreadOrder order) {
+        if (order.orderId == null || order.pancakes + count > Benchmarks.MAX_PANCAKES_PER_ORDER) {
+            if (order.orderId != null) {
+                service.cancelOrder(order.orderId);
+            }
+            order.orderId = Benchmarks.createOrder(service, 1, 1);
+            order.pancakes = 0;
+        }
+        order.pancakes += count;
+        return service.addPancakes(order.orderId, Benchmarks.DARK_CHOCOLATE, count);
+    }
+}
@@ -0,0 +1,39 @@
+package org.pancakelab.benchmark;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.pancakelab.model.ApprovedIngredients;
+import org.pancakelab.model.pancakes.InMemoryOrderRepository;
+import org.pancakelab.model.pancakes.PancakeBuilderFactoryImpl;
+import org.pancakelab.service.OrderFactoryImp;
+import org.pancakelab.service.PancakeManagerImpl;
+import org.pancakelab.service.PancakeService;
+
+/**
+ * Fixtures shared by the benchmarks.
+ */
+final class Benchmarks {
+    static final List<String> DARK_CHOCOLATE = List.of(ApprovedIngredients.INGREDIENT_DARK_CHOCOLATE);
+    static final List<String> MILK_CHOCOLATE_HAZELNUTS = List.of(ApprovedIngredients.INGREDIENT_MILK_CHOCOLATE,
+            ApprovedIngredients.INGREDIENT_HAZELNUTS);
+    static final String DARK_CHOCOLATE_DESCRIPTION = "Delicious pancake with dark chocolate!";
+
+    static final int MAX_PANCAKES_PER_ORDER = PancakeManagerImpl.MAX_PANCAKE_PER_ORDER;
+
+    private Benchmarks() {
+    }
+
+    static PancakeService newService() {
+        return new PancakeService(new InMemoryOrderRepository(), new PancakeManagerImpl(new PancakeBuilderFactoryImpl()),
+                new OrderFactoryImp());
+    }
+
+    static UUID createOrder(PancakeService service, int building, int room) {
+        UUID orderId = service.createOrder(building, room).getOrderId();
+        if (orderId == null) {
+            throw new IllegalStateException("Benchmark order could not be created");
+        }
+        return orderId;
+    }
+}
@@ -0,0 +1,62 @@
+package org.pancakelab.benchmark;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pancakelab.service.PancakeService;
+
+/**
+ * Kitchen and delivery listings against repositories of growing size, where one order
+ * in ten is completed and one in ten is prepared.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ListOrdersBenchmark {
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    int repositorySize;
+
+    PancakeService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = Benchmarks.newService();
+        for (int i = 0; i < repositorySize; i++) {
+            UUID orderId = Benchmarks.createOrder(service, 1 + i % 100, 1 + i % 1000);
+            service.addPancakes(orderId, Benchmarks.DARK_CHOCOLATE, 1);
+            if (i % 10 == 1 || i % 10 == 2) {
+                service.completeOrder(orderId);
+            }
+            if (i % 10 == 2) {
+                service.prepareOrder(orderId);
+            }
+        }
+    }
+
+    @Benchmark
+    public Set<UUID> listCompletedOrders() {
+        return service.listCompletedOrders();
+    }
+
+    @Benchmark
+    public Set<UUID> listPreparedOrders() {
+        return service.listPreparedOrders();
+    }
+}
@@ -0,0 +1,81 @@
+package org.pancakelab.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pancakelab.model.PancakeOperationResult;
+import org.pancakelab.model.ViewOrderResult;
+import org.pancakelab.service.PancakeService;
+
+/**
+ * Single-order operations of {@link PancakeService}: creating, viewing and removing pancakes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderBenchmark {
+
+    PancakeService service;
+
+    // a fresh service per iteration keeps createOrder from growing the repository without bound
+    @Setup(Level.Iteration)
+    public void setUp() {
+        service = Benchmarks.newService();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadOrders {
+        UUID viewedOrder;
+        UUID drainedOrder;
+        int remaining;
+
+        @Setup(Level.Iteration)
+        public void setUp(OrderBenchmark benchmark) {
+            viewedOrder = Benchmarks.createOrder(benchmark.service, 1, 1);
+            benchmark.service.addPancakes(viewedOrder, Benchmarks.DARK_CHOCOLATE, 5);
+            benchmark.service.addPancakes(viewedOrder, Benchmarks.MILK_CHOCOLATE_HAZELNUTS, 5);
+            drainedOrder = Benchmarks.createOrder(benchmark.service, 1, 2);
+            remaining = 0;
+        }
+    }
+
+    @Benchmark
+    public PancakeOperationResult createOrder() {
+        return service.createOrder(1, 1);
+    }
+
+    @Benchmark
+    public ViewOrderResult viewOrder(ThreadOrders orders) {
+        return service.viewOrder(orders.viewedOrder);
+    }
+
+    /**
+     * Removes one pancake per operation; the order is refilled once every
+     * {@value Benchmarks#MAX_PANCAKES_PER_ORDER} operations.
+     */
+    @Benchmark
+    public PancakeOperationResult removePancakes(ThreadOrders orders) {
+        if (orders.remaining == 0) {
+            for (int added = 0; added < Benchmarks.MAX_PANCAKES_PER_ORDER; added += 100) {
+                service.addPancakes(orders.drainedOrder, Benchmarks.DARK_CHOCOLATE, 100);
+            }
+            orders.remaining = Benchmarks.MAX_PANCAKES_PER_ORDER;
+        }
+        orders.remaining--;
+        return service.removePancakes(Benchmarks.DARK_CHOCOLATE_DESCRIPTION, orders.drainedOrder, 1);
+    }
+}
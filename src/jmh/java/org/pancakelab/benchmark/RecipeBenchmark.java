@@ -0,0 +1,52 @@
+package org.pancakelab.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pancakelab.model.pancakes.CachingPancakeBuilderFactory;
+import org.pancakelab.model.pancakes.PancakeBuilderFactory;
+import org.pancakelab.model.pancakes.PancakeBuilderFactoryImpl;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+import org.pancakelab.model.pancakes.ThreadLocalPancakeBuilderFactory;
+
+/**
+ * Building an already interned recipe with each {@link PancakeBuilderFactory}; run with
+ * {@code -prof gc} to compare allocation per recipe.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecipeBenchmark {
+
+    @Param({ "new", "threadLocal", "caching" })
+    String factory;
+
+    PancakeBuilderFactory builderFactory;
+
+    @Setup
+    public void setUp() {
+        builderFactory = switch (factory) {
+            case "threadLocal" -> new ThreadLocalPancakeBuilderFactory();
+            case "caching" -> new CachingPancakeBuilderFactory(new ThreadLocalPancakeBuilderFactory());
+            default -> new PancakeBuilderFactoryImpl();
+        };
+    }
+
+    @Benchmark
+    public PancakeRecipe recipeFor() throws Exception {
+        return builderFactory.recipeFor(Benchmarks.MILK_CHOCOLATE_HAZELNUTS);
+    }
+}
@@ -1,5 +1,6 @@
 package org.pancakelab.model;
 
+import java.util.List;
 import java.util.Set;
 
 public class ApprovedIngredients {
@@ -8,18 +9,40 @@ public class ApprovedIngredients {
 	public static String INGREDIENT_HAZELNUTS = "hazelnuts";
 	public static String INGREDIENT_WHIPPED_CREAM = "whipped cream";
 	
-    private static final Set<String> INGREDIENTS = Set.of(
+    // the menu until another one is published; ordinals are positions in this list
+    private static final IngredientCatalog CATALOG = new IngredientCatalog(List.of(
         INGREDIENT_DARK_CHOCOLATE,
         INGREDIENT_MILK_CHOCOLATE,
         INGREDIENT_HAZELNUTS,
         INGREDIENT_WHIPPED_CREAM
-    );
+    ));
+
+    /**
+     * @return the catalog all recipes are validated against, e.g. to load the menu from a file
+     */
+    public static IngredientCatalog catalog() {
+        return CATALOG;
+    }
 
     public static boolean isApproved(String ingredient) {
-        return INGREDIENTS.contains(ingredient.toLowerCase());
+        return CATALOG.snapshot().isApproved(ingredient);
     }
 
     public static Set<String> getAll() {
-        return INGREDIENTS;
+        return CATALOG.snapshot().approvedNames();
+    }
+    
+    /**
+     * @return ordinal of the ingredient, in any letter case, or -1 if it is not approved
+     */
+    public static int ordinalOf(String ingredient) {
+        return CATALOG.snapshot().ordinalOf(ingredient);
+    }
+    
+    /**
+     * @return name of an approved or withdrawn ingredient
+     */
+    public static String nameOf(int ordinal) {
+        return CATALOG.snapshot().nameOf(ordinal);
     }
-}
\ No newline at end of file
+}
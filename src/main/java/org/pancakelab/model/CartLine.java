@@ -0,0 +1,60 @@
+package org.pancakelab.model;
+
+import java.util.List;
+
+import org.pancakelab.model.pancakes.PancakeRecipe;
+
+/**
+ * One line of a cart submitted at once: add {@code count} pancakes with the given ingredients,
+ * or remove up to {@code count} pancakes with the given description.
+ */
+public class CartLine {
+	private final boolean addition;
+	private final List<String> ingredients;
+	private final String description;
+	private final int count;
+	private final PancakeRecipe recipe;
+
+	private CartLine(boolean addition, List<String> ingredients, String description, int count, PancakeRecipe recipe) {
+		this.addition = addition;
+		this.ingredients = ingredients;
+		this.description = description;
+		this.count = count;
+		this.recipe = recipe;
+	}
+
+	public static CartLine add(List<String> ingredients, int count) {
+		return new CartLine(true, ingredients == null ? null : List.copyOf(ingredients), null, count, null);
+	}
+
+	public static CartLine remove(String description, int count) {
+		return new CartLine(false, null, description, count, null);
+	}
+
+	/**
+	 * @return this addition with its pancake built and its count capped, ready to be applied to an order
+	 */
+	public CartLine resolve(PancakeRecipe recipe, int count) {
+		return new CartLine(true, ingredients, recipe.description(), count, recipe);
+	}
+
+	public boolean isAddition() {
+		return addition;
+	}
+
+	public List<String> getIngredients() {
+		return ingredients;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	public PancakeRecipe getRecipe() {
+		return recipe;
+	}
+}
@@ -0,0 +1,74 @@
+package org.pancakelab.model;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Everything a courier takes on one trip: one stop per room, sorted by building and room,
+ * plus the orders that could not be delivered and why.
+ */
+public class DeliveryManifest {
+
+	/**
+	 * One door: all orders delivered to the same room and their pancakes.
+	 */
+	public record Stop(int building, int room, List<UUID> orderIds, List<String> pancakes) {
+	}
+
+	private final boolean success;
+	private final List<Stop> stops;
+	private final List<DeliveryResult> failures;
+	private final ErrorCode errorCode;
+	private final String message;
+
+	public DeliveryManifest(boolean success, List<Stop> stops, List<DeliveryResult> failures, ErrorCode errorCode, String message) {
+		this.success = success;
+		this.stops = stops;
+		this.failures = failures;
+		this.errorCode = errorCode;
+		this.message = message;
+	}
+
+	public DeliveryManifest(boolean success, List<Stop> stops, List<DeliveryResult> failures, String message) {
+		this(success, stops, failures, success ? ErrorCode.NONE : ErrorCode.UNEXPECTED, message);
+	}
+
+	/**
+	 * @return an empty manifest for a request that was rejected before any order was looked at
+	 */
+	public static DeliveryManifest failure(ErrorCode errorCode) {
+		return new DeliveryManifest(false, List.of(), List.of(), errorCode, errorCode.getMessage());
+	}
+
+	public DeliveryManifest(List<Stop> stops, List<DeliveryResult> failures) {
+		this(true, stops, failures, "");
+	}
+
+	public boolean isSuccess() {
+		return success;
+	}
+
+	public List<Stop> getStops() {
+		return stops;
+	}
+
+	public List<DeliveryResult> getFailures() {
+		return failures;
+	}
+
+	public ErrorCode getErrorCode() {
+		return errorCode;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public int getOrderCount() {
+		int count = 0;
+		for (Stop stop : stops) {
+			count += stop.orderIds().size();
+		}
+		return count;
+	}
+}
@@ -1,26 +1,51 @@
 package org.pancakelab.model;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public class DeliveryResult {
+    // failures that carry no order ID are the same every time, so they are shared
+    private static final Map<ErrorCode, DeliveryResult> FAILURES = new EnumMap<ErrorCode, DeliveryResult>(ErrorCode.class);
+
+    static {
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            FAILURES.put(errorCode, new DeliveryResult(false, null, List.of(), errorCode, errorCode.getMessage()));
+        }
+    }
+
     private final boolean success;
     private final UUID orderId;
     private final List<String> pancakesToDeliver;
-    private String message;
+    private final ErrorCode errorCode;
+    private final String message;
 
-    public DeliveryResult(boolean success, UUID orderId, List<String> pancakesToDeliver, String message) {
+    public DeliveryResult(boolean success, UUID orderId, List<String> pancakesToDeliver, ErrorCode errorCode, String message) {
         this.success = success;
         this.orderId = orderId;
         this.pancakesToDeliver = pancakesToDeliver;
+        this.errorCode = errorCode;
         this.message = message;
     }
+
+    public DeliveryResult(boolean success, UUID orderId, List<String> pancakesToDeliver, String message) {
+        this(success, orderId, pancakesToDeliver, success ? ErrorCode.NONE : ErrorCode.UNEXPECTED, message);
+    }
     
     public DeliveryResult(boolean success, UUID orderId, String message) {
-        this.success = success;
-        this.orderId = orderId;
-        this.pancakesToDeliver = List.of();
-        this.message = message;
+        this(success, orderId, List.of(), message);
+    }
+
+    public static DeliveryResult failure(UUID orderId, ErrorCode errorCode) {
+        if (orderId == null) {
+            return FAILURES.get(errorCode);
+        }
+        return new DeliveryResult(false, orderId, List.of(), errorCode, errorCode.getMessage());
+    }
+
+    public static DeliveryResult failure(UUID orderId, Exception e) {
+        return new DeliveryResult(false, orderId, List.of(), ErrorCode.of(e), e.getMessage());
     }
 
     public boolean isSuccess() {
@@ -35,16 +60,21 @@ public class DeliveryResult {
         return pancakesToDeliver;
     }
 
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+
     @Override
     public String toString() {
         return "DeliveryResult{" +
                 "success=" + success +
                 ", order=" + orderId +
                 ", pancakesToDeliver=" + pancakesToDeliver +
+                ", errorCode=" + errorCode +
                 '}';
     }
 
 	public String getMessage() {
 		return message;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package org.pancakelab.model;
+
+/**
+ * Reason a service call failed, so callers can branch on a constant instead of parsing messages.
+ */
+public enum ErrorCode {
+	NONE(""),
+	ORDER_ID_NULL("Order ID cannot be null."),
+	ORDER_IDS_NULL("Order IDs cannot be null."),
+	ORDER_NOT_FOUND("Order not found."),
+	INVALID_BUILDING_OR_ROOM("Invalid building or room number."),
+	INVALID_BUILDING("Invalid building number."),
+	INGREDIENTS_EMPTY("Ingredient list is null or empty."),
+	INVALID_INGREDIENT("Ingredient invalid value"),
+	CART_LINES_NULL("Cart lines cannot be null."),
+	INVALID_STATUS_TRANSITION("Cannot change status of the order"),
+	PANCAKES_NOT_CHANGEABLE("Order is not in the state in which changing pancakes is possible"),
+	UNEXPECTED("Unexpected error");
+
+	private final String message;
+
+	ErrorCode(String message) {
+		this.message = message;
+	}
+
+	/**
+	 * @return default message reported with this code
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * @return code of a domain failure, {@link #UNEXPECTED} for any other exception
+	 */
+	public static ErrorCode of(Exception e) {
+		return e instanceof OrderException ? ((OrderException) e).getErrorCode() : UNEXPECTED;
+	}
+}
@@ -4,10 +4,11 @@ public class Ingredient implements Comparable<Ingredient> {
     private final String name;
 
     public Ingredient(String name) {
-        if (!ApprovedIngredients.isApproved(name)) {
+        int ordinal = ApprovedIngredients.ordinalOf(name);
+        if (ordinal < 0) {
             throw new IllegalArgumentException("Invalid ingredient: " + name);
         }
-        this.name = name.toLowerCase();
+        this.name = ApprovedIngredients.nameOf(ordinal);
     }
 
     public String getName() {
@@ -0,0 +1,261 @@
+package org.pancakelab.model;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The menu of approved ingredients, replaceable while the application runs.
+ *
+ * Every change publishes a new immutable {@link Snapshot} through a single volatile field, so
+ * validation never locks. An ingredient keeps its ordinal for as long as the process runs:
+ * withdrawn ingredients stay known, just no longer approved. Recipes store ordinals, so pancakes
+ * already in orders keep their names and descriptions whatever the current menu is.
+ *
+ * The menu can be loaded from a file with one ingredient per line ({@code #} starts a comment)
+ * and reloaded whenever that file changes, see {@link #watch(Path)}. Withdrawn ingredients are
+ * never released, so at most {@value #MAX_INGREDIENTS} different ingredients can appear over the
+ * lifetime of the process; a menu that would exceed that is rejected.
+ */
+public class IngredientCatalog implements AutoCloseable {
+	// recipes store ordinals in a byte
+	public static final int MAX_INGREDIENTS = Byte.MAX_VALUE + 1;
+
+	/**
+	 * One version of the menu.
+	 */
+	public static final class Snapshot {
+		private final long version;
+		// every ingredient ever known, indexed by ordinal
+		private final IngredientResolver resolver;
+		private final boolean[] approved;
+		private final Set<String> approvedNames;
+
+		private Snapshot(long version, List<String> names, Set<String> approvedNames) {
+			this.version = version;
+			this.resolver = new IngredientResolver(names);
+			this.approved = new boolean[names.size()];
+			for (int ordinal = 0; ordinal < names.size(); ordinal++) {
+				approved[ordinal] = approvedNames.contains(names.get(ordinal));
+			}
+			this.approvedNames = Collections.unmodifiableSet(approvedNames);
+		}
+
+		public long version() {
+			return version;
+		}
+
+		/**
+		 * @return ordinal of the ingredient, in any letter case, or -1 if it is not approved
+		 */
+		public int ordinalOf(String ingredient) {
+			int ordinal = resolver.resolve(ingredient);
+			return ordinal >= 0 && approved[ordinal] ? ordinal : -1;
+		}
+
+		/**
+		 * @return ordinal of the ingredient, approved or withdrawn, or -1 if it was never known
+		 */
+		public int knownOrdinalOf(String ingredient) {
+			return resolver.resolve(ingredient);
+		}
+
+		public boolean isApproved(String ingredient) {
+			return ordinalOf(ingredient) >= 0;
+		}
+
+		/**
+		 * @return name of any ingredient that was known when this version was published
+		 */
+		public String nameOf(int ordinal) {
+			return resolver.nameOf(ordinal);
+		}
+
+		public Set<String> approvedNames() {
+			return approvedNames;
+		}
+
+		private List<String> knownNames() {
+			List<String> names = new ArrayList<String>(resolver.size());
+			for (int ordinal = 0; ordinal < resolver.size(); ordinal++) {
+				names.add(resolver.nameOf(ordinal));
+			}
+			return names;
+		}
+	}
+
+	// a watched file is loaded once it has been quiet for this long
+	static final long SETTLE_MILLIS = 200;
+
+	private volatile Snapshot snapshot;
+	private WatchService watchService;
+
+	public IngredientCatalog(Collection<String> approved) {
+		this.snapshot = build(1, List.of(), approved);
+	}
+
+	/**
+	 * @return the current menu; callers validating a whole request should use one snapshot for all of it
+	 */
+	public Snapshot snapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Replaces the approved ingredients. Nothing is published if they did not change.
+	 * @return the menu now in effect
+	 */
+	public synchronized Snapshot publish(Collection<String> approved) {
+		Snapshot current = snapshot;
+		Snapshot next = build(current.version + 1, current.knownNames(), approved);
+		if (next.approvedNames.equals(current.approvedNames) && next.resolver.size() == current.resolver.size()) {
+			return current;
+		}
+		snapshot = next;
+		return next;
+	}
+
+	/**
+	 * Ordinal for an ingredient of a persisted recipe. Ingredients that are not on the menu any
+	 * more, e.g. after a restart with a new menu file, are registered as withdrawn.
+	 * @return ordinal of the ingredient, -1 if the catalog is full
+	 */
+	public synchronized int restoredOrdinalOf(String ingredient) {
+		int ordinal = snapshot.knownOrdinalOf(ingredient);
+		if (ordinal >= 0 || ingredient == null || normalize(ingredient).isEmpty()) {
+			return ordinal;
+		}
+		Snapshot current = snapshot;
+		List<String> names = current.knownNames();
+		if (names.size() == MAX_INGREDIENTS) {
+			return -1;
+		}
+		names.add(normalize(ingredient));
+		snapshot = new Snapshot(current.version + 1, names, new LinkedHashSet<String>(current.approvedNames));
+		return names.size() - 1;
+	}
+
+	/**
+	 * Publishes the ingredients listed in {@code file}. A file that lists no ingredient, e.g. one
+	 * that was just truncated to be rewritten, is rejected and the current menu stays in effect.
+	 */
+	public Snapshot load(Path file) throws IOException {
+		List<String> approved = new ArrayList<String>();
+		for (String line : Files.readAllLines(file)) {
+			int comment = line.indexOf('#');
+			String name = (comment < 0 ? line : line.substring(0, comment)).trim();
+			if (!name.isEmpty()) {
+				approved.add(name);
+			}
+		}
+		if (approved.isEmpty()) {
+			throw new IOException("Menu file " + file + " lists no ingredients");
+		}
+		return publish(approved);
+	}
+
+	/**
+	 * Loads {@code file} and reloads it on a daemon thread whenever it changes.
+	 *
+	 * A change is loaded once the file has not been modified for {@value #SETTLE_MILLIS} ms, and a
+	 * file that cannot be read, lists no ingredient or holds too many keeps the current menu until
+	 * the next change. A writer that is slower than that can still be caught halfway; replace the
+	 * file with an atomic rename to be safe.
+	 */
+	public synchronized void watch(Path file) throws IOException {
+		if (watchService != null) {
+			throw new IllegalStateException("Catalog is already watching a file.");
+		}
+		Path absolute = file.toAbsolutePath();
+		WatchService service = absolute.getFileSystem().newWatchService();
+		try {
+			absolute.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+			load(absolute);
+		} catch (IOException | RuntimeException e) {
+			service.close();
+			throw e;
+		}
+		watchService = service;
+		Thread thread = new Thread(() -> reloadOnChange(service, absolute), "ingredient-catalog");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stops watching the menu file; the current menu stays in effect.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (watchService != null) {
+			watchService.close();
+			watchService = null;
+		}
+	}
+
+	private void reloadOnChange(WatchService service, Path file) {
+		try {
+			while (true) {
+				if (!changed(service.take(), file)) {
+					continue;
+				}
+				// wait until the writer is done with the file
+				for (WatchKey key; (key = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null; ) {
+					changed(key, file);
+				}
+				try {
+					load(file);
+				} catch (IOException | RuntimeException e) {
+					// keep the current menu; a broken reload must not stop the watcher
+					System.err.println("Ingredient menu " + file + " not reloaded: " + e);
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// catalog closed
+		}
+	}
+
+	private static boolean changed(WatchKey key, Path file) {
+		boolean changed = false;
+		for (WatchEvent<?> event : key.pollEvents()) {
+			changed |= file.getFileName().equals(event.context());
+		}
+		key.reset();
+		return changed;
+	}
+
+	private static Snapshot build(long version, List<String> known, Collection<String> approved) {
+		List<String> names = new ArrayList<String>(known);
+		Set<String> approvedNames = new LinkedHashSet<String>();
+		for (String ingredient : approved) {
+			String name = normalize(ingredient);
+			if (name.isEmpty()) {
+				continue;
+			}
+			approvedNames.add(name);
+			if (!names.contains(name)) {
+				names.add(name);
+			}
+		}
+		if (names.size() > MAX_INGREDIENTS) {
+			throw new IllegalArgumentException("Catalog cannot hold more than " + MAX_INGREDIENTS + " ingredients.");
+		}
+		return new Snapshot(version, names, approvedNames);
+	}
+
+	private static String normalize(String ingredient) {
+		return ingredient.trim().toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,69 @@
+package org.pancakelab.model;
+
+import java.util.List;
+
+/**
+ * Precompiled, case-insensitive lookup from an ingredient name to its ordinal.
+ *
+ * The names are hashed into an open-addressing table once. A lookup hashes the raw input
+ * character by character, folding case as it goes, and confirms the single candidate with
+ * {@link String#equalsIgnoreCase}, so resolving a name never allocates.
+ */
+public final class IngredientResolver {
+	private final String[] names;
+	// ordinal + 1 per slot, 0 marks an empty slot
+	private final int[] slots;
+	private final int mask;
+
+	/**
+	 * @param names lower-case ingredient names; a name's position in the list is its ordinal
+	 */
+	public IngredientResolver(List<String> names) {
+		this.names = names.toArray(new String[0]);
+		int capacity = Integer.highestOneBit(Math.max(4, this.names.length * 4) - 1) << 1;
+		this.slots = new int[capacity];
+		this.mask = capacity - 1;
+		for (int ordinal = 0; ordinal < this.names.length; ordinal++) {
+			if (resolve(this.names[ordinal]) >= 0) {
+				throw new IllegalArgumentException("Duplicate ingredient: " + this.names[ordinal]);
+			}
+			int slot = hash(this.names[ordinal]) & mask;
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = ordinal + 1;
+		}
+	}
+
+	/**
+	 * @return ordinal of the ingredient, or -1 if it is null or unknown
+	 */
+	public int resolve(String ingredient) {
+		if (ingredient == null) {
+			return -1;
+		}
+		for (int slot = hash(ingredient) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+			int ordinal = slots[slot] - 1;
+			if (names[ordinal].equalsIgnoreCase(ingredient)) {
+				return ordinal;
+			}
+		}
+		return -1;
+	}
+
+	public String nameOf(int ordinal) {
+		return names[ordinal];
+	}
+
+	public int size() {
+		return names.length;
+	}
+
+	private static int hash(String name) {
+		int h = name.length();
+		for (int i = 0; i < name.length(); i++) {
+			h = 31 * h + Character.toLowerCase(name.charAt(i));
+		}
+		return h ^ (h >>> 16);
+	}
+}
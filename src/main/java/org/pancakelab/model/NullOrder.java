@@ -35,6 +35,11 @@ public class NullOrder implements OrderInterface {
         return 0; // Indicate an invalid room
     }
     
+    @Override
+    public OrderStatus getStatus() {
+        return OrderStatus.CANCELLED; // Behaves like an order that was removed
+    }
+    
     @Override
     public boolean isInitated() {
     	return false;
@@ -72,13 +77,37 @@ public class NullOrder implements OrderInterface {
     	return new LinkedList<String>();
     }
     
+    public List<PancakeRecipe> getPancakeRecipes() {
+    	return List.of();
+    }
+    
     public void addPancake(PancakeRecipe pancake) {
     	// do nothing
     }
     
+    public int addPancakes(PancakeRecipe pancake, int count) {
+    	return 0;
+    }
+    
+    public int addPancakes(PancakeRecipe pancake, int count, int maxPancakes) {
+    	return 0;
+    }
+    
     public boolean removePancake(String description) {
     	return false;
     }
+    
+    public int removePancakes(String description, int count) {
+    	return 0;
+    }
+    
+    public void applyCart(List<CartLine> lines, int maxPancakes, boolean complete) {
+    	// do nothing
+    }
+    
+    public int getPancakeCount() {
+    	return 0;
+    }
 
     
     @Override
@@ -1,11 +1,13 @@
 package org.pancakelab.model;
 
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.pancakelab.model.pancakes.OrderRepository;
@@ -16,19 +18,47 @@ public class Order implements OrderInterface {
     private final UUID id;
     private final int building;
     private final int room;
-    private OrderStatus status;
+    // read without locking; transitions are compare-and-set against STATUS_TRANSITIONS
+    private final AtomicReference<OrderStatus> status;
     
-    private List<PancakeRecipe> pancakes;
+    // pancakes grouped by description, in the order their first pancake was added
+    private final Map<String, PancakeCount> pancakes = new LinkedHashMap<String, PancakeCount>();
+    private volatile int pancakeCount;
+    
+    // bumped under the write lock on every pancake change; a cached view is current while its version matches
+    private volatile long version;
+    private volatile PancakeView view = PancakeView.EMPTY;
     
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
     
     public Order(int building, int room) {
+    	this(UUID.randomUUID(), building, room);
+    }
+    
+    public Order(UUID id, int building, int room) {
     	validateBuildingAndRoom(building, room);
-        this.id = UUID.randomUUID();
+        this.id = Objects.requireNonNull(id, "Order ID cannot be null.");
         this.building = building;
         this.room = room;
-        status = OrderStatus.INITIATED;
-        pancakes = new LinkedList<PancakeRecipe>();
+        status = new AtomicReference<OrderStatus>(OrderStatus.INITIATED);
+    }
+    
+    private Order(UUID id, int building, int room, OrderStatus status, List<PancakeRecipe> pancakes) {
+    	validateBuildingAndRoom(building, room);
+    	this.id = id;
+    	this.building = building;
+    	this.room = room;
+    	this.status = new AtomicReference<OrderStatus>(status);
+    	for (PancakeRecipe pancake : pancakes) {
+    		addToCounts(pancake, 1);
+    	}
+    }
+    
+    /**
+     * Rebuilds an order from persisted state, e.g. when a repository replays its journal.
+     */
+    public static Order restore(UUID id, int building, int room, OrderStatus status, List<PancakeRecipe> pancakes) {
+    	return new Order(id, building, room, status, pancakes);
     }
     
     
@@ -39,6 +69,32 @@ public class Order implements OrderInterface {
             OrderStatus.PREPARED, OrderStatus.DELIVERED
     );
     
+    /**
+     * Immutable pancake lists of one version of the order, shared by all readers until the next change.
+     */
+    private static final class PancakeView {
+    	private static final PancakeView EMPTY = new PancakeView(0, List.of(), List.of());
+    	
+    	private final long version;
+    	private final List<String> descriptions;
+    	private final List<PancakeRecipe> recipes;
+    	
+    	private PancakeView(long version, List<String> descriptions, List<PancakeRecipe> recipes) {
+    		this.version = version;
+    		this.descriptions = descriptions;
+    		this.recipes = recipes;
+    	}
+    }
+    
+    private static final class PancakeCount {
+    	private final PancakeRecipe recipe;
+    	private int count;
+    	
+    	private PancakeCount(PancakeRecipe recipe) {
+    		this.recipe = recipe;
+    	}
+    }
+    
     private void validateBuildingAndRoom(int building, int room) {
         if (building <= 0) {
             throw new IllegalArgumentException("Building number must be greater than zero.");
@@ -49,74 +105,213 @@ public class Order implements OrderInterface {
     }
     
     private void changeStatus(OrderStatus nextStatus) throws Exception {
+    	if (status.get() != OrderStatus.INITIATED) {
+    		transitionTo(nextStatus);
+    		return;
+    	}
+    	// Pancakes are only changed while INITIATED, checked under the write lock,
+    	// so leaving INITIATED takes the write lock too. Nothing ever returns to INITIATED.
     	lock.writeLock().lock();
     	try {
-    		if (nextStatus == OrderStatus.CANCELLED) {
-    			status = nextStatus;
-    		} else if (STATUS_TRANSITIONS.getOrDefault(status, null) == nextStatus) {
-    			status = nextStatus;
-    		} else {
-    			throw new Exception("Cannot change status of the order to " + nextStatus.toString());
-    		}
+    		transitionTo(nextStatus);
     	} finally {
     		lock.writeLock().unlock();
     	}
     }
     
-    public void addPancake(PancakeRecipe pancake) throws Exception {
-    	if (!isInitated()) {
-    		throw new Exception("Order is not in the state in which adding pancakes is possible");
+    private void transitionTo(OrderStatus nextStatus) throws Exception {
+    	while (true) {
+    		OrderStatus current = status.get();
+    		if (nextStatus != OrderStatus.CANCELLED && STATUS_TRANSITIONS.getOrDefault(current, null) != nextStatus) {
+    			throw OrderException.invalidTransition(nextStatus);
+    		}
+    		if (status.compareAndSet(current, nextStatus)) {
+    			return;
+    		}
     	}
+    }
+    
+    public void addPancake(PancakeRecipe pancake) throws Exception {
+    	addPancakes(pancake, 1);
+    }
+    
+    /**
+     * Adds {@code count} pancakes made from the same recipe under a single lock acquisition.
+     * @return number of pancakes added
+     */
+    public int addPancakes(PancakeRecipe pancake, int count) throws Exception {
+    	return addPancakes(pancake, count, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Adds up to {@code count} pancakes, capped so that the order holds at most {@code maxPancakes}.
+     * The cap is checked under the same lock as the addition, so concurrent calls cannot overshoot it.
+     * @return number of pancakes actually added
+     */
+    public int addPancakes(PancakeRecipe pancake, int count, int maxPancakes) throws Exception {
     	lock.writeLock().lock();
     	try {
-	    	pancakes.add(pancake);
-	    	OrderLog.logAddPancake(this, pancake.description(), getPancakes().size());
+    		if (!isInitated()) {
+    			throw OrderException.ADDING_NOT_POSSIBLE;
+    		}
+    		count = Math.min(count, maxPancakes - pancakeCount);
+    		if (count <= 0) {
+    			return 0;
+    		}
+    		addToCounts(pancake, count);
+	    	OrderLog.logAddPancakes(this, pancake.description(), count, pancakeCount);
+	    	return count;
     	} finally {
     		lock.writeLock().unlock();
     	}
     }
     
     public boolean removePancake(String description) throws Exception {
-    	if (!isInitated()) {
-    		throw new Exception("Order is not in the state in which removing pancakes is possible");
+    	return removePancakes(description, 1) > 0;
+    }
+    
+    /**
+     * Removes up to {@code count} pancakes with the given description under a single lock acquisition.
+     * @return number of pancakes actually removed
+     */
+    public int removePancakes(String description, int count) throws Exception {
+    	lock.writeLock().lock();
+    	try {
+    		if (!isInitated()) {
+    			throw OrderException.REMOVING_NOT_POSSIBLE;
+    		}
+    		return removeFromCounts(description, count);
+    	} finally {
+    		lock.writeLock().unlock();
     	}
-    	
+    }
+    
+    /**
+     * Applies all cart lines and, if requested, completes the order under a single write lock,
+     * so other threads see either none or all of the cart. Additions must be resolved and are
+     * capped so that the order holds at most {@code maxPancakes} pancakes.
+     */
+    public void applyCart(List<CartLine> lines, int maxPancakes, boolean complete) throws Exception {
     	lock.writeLock().lock();
     	try {
-    		for (Iterator<PancakeRecipe> iterator = pancakes.iterator(); iterator.hasNext(); ) {
-	            PancakeRecipe pancake = iterator.next();
-	            if (pancake.description().equals(description)) {
-	                iterator.remove();
-	                OrderLog.logRemovePancakes(this, description, 1, getPancakes().size());
-	                return true;
-	            }
-	        }
-	        return false; // ❌ No pancake found with this description
+    		if (!isInitated()) {
+    			throw OrderException.CHANGING_NOT_POSSIBLE;
+    		}
+    		for (CartLine line : lines) {
+    			if (line.isAddition() && line.getRecipe() == null) {
+    				throw new IllegalArgumentException("Cart line has no pancake recipe.");
+    			}
+    		}
+    		// nothing below can fail, so the cart is applied completely or not at all
+    		for (CartLine line : lines) {
+    			if (line.isAddition()) {
+    				int count = Math.min(line.getCount(), maxPancakes - pancakeCount);
+    				if (count > 0) {
+    					addToCounts(line.getRecipe(), count);
+    					OrderLog.logAddPancakes(this, line.getDescription(), count, pancakeCount);
+    				}
+    			} else {
+    				removeFromCounts(line.getDescription(), line.getCount());
+    			}
+    		}
+    		if (complete) {
+    			transitionTo(OrderStatus.COMPLETED);
+    		}
     	} finally {
     		lock.writeLock().unlock();
     	}
     }
     
+    private int removeFromCounts(String description, int count) {
+    	PancakeCount entry = pancakes.get(description);
+    	if (entry == null || count <= 0) {
+    		return 0; // ❌ No pancake found with this description
+    	}
+    	int removed = Math.min(count, entry.count);
+    	entry.count -= removed;
+    	if (entry.count == 0) {
+    		pancakes.remove(description);
+    	}
+    	pancakeCount -= removed;
+    	version++;
+    	OrderLog.logRemovePancakes(this, description, removed, pancakeCount);
+    	return removed;
+    }
+    
+    /**
+     * Returns the cached immutable list without locking or allocating while the pancakes are unchanged.
+     */
     public List<String> getPancakes() {
+    	return currentView().descriptions;
+    }
+    
+    public List<PancakeRecipe> getPancakeRecipes() {
+    	return currentView().recipes;
+    }
+    
+    public int getPancakeCount() {
+    	return pancakeCount;
+    }
+    
+    /**
+     * Counts each group of identical pancakes once instead of walking the expanded list.
+     */
+    @Override
+    public Map<PancakeRecipe, Integer> getPancakeCounts() {
     	lock.readLock().lock();
     	try {
-    		return pancakes.stream().map(PancakeRecipe::description).toList();
+    		Map<PancakeRecipe, Integer> counts = new LinkedHashMap<PancakeRecipe, Integer>(pancakes.size() * 2);
+    		for (PancakeCount entry : pancakes.values()) {
+    			counts.merge(entry.recipe, entry.count, Integer::sum);
+    		}
+    		return counts;
     	} finally {
     		lock.readLock().unlock();
     	}
     }
     
-    public List<String> getPancakesToDeliver() {
+    private PancakeView currentView() {
+    	PancakeView current = view;
+    	if (current.version == version) {
+    		return current;
+    	}
     	lock.readLock().lock();
     	try {
-        	if (isDelivered()) {
-        		return getPancakes();
-        	}
-        	return new LinkedList<String>();
+    		// writers are excluded here, so the view built and published below cannot be stale
+    		current = view;
+    		if (current.version != version) {
+    			current = buildView();
+    			view = current;
+    		}
+    		return current;
     	} finally {
     		lock.readLock().unlock();
     	}
     }
+    
+    private PancakeView buildView() {
+    	List<String> descriptions = new ArrayList<String>(pancakeCount);
+    	List<PancakeRecipe> recipes = new ArrayList<PancakeRecipe>(pancakeCount);
+    	for (PancakeCount entry : pancakes.values()) {
+    		descriptions.addAll(Collections.nCopies(entry.count, entry.recipe.description()));
+    		recipes.addAll(Collections.nCopies(entry.count, entry.recipe));
+    	}
+    	return new PancakeView(version, Collections.unmodifiableList(descriptions), Collections.unmodifiableList(recipes));
+    }
+    
+    private void addToCounts(PancakeRecipe pancake, int count) {
+    	PancakeCount entry = pancakes.computeIfAbsent(pancake.description(), description -> new PancakeCount(pancake));
+    	entry.count += count;
+    	pancakeCount += count;
+    	version++;
+    }
+    
+    public List<String> getPancakesToDeliver() {
+    	if (isDelivered()) {
+    		return getPancakes(); // pancakes cannot change any more once the order left INITIATED
+    	}
+    	return List.of();
+    }
 
     public UUID getId() {
         return id;
@@ -130,6 +325,10 @@ public class Order implements OrderInterface {
         return room;
     }
     
+    public OrderStatus getStatus() {
+    	return status.get();
+    }
+    
     public void complete() throws Exception {
     	changeStatus(OrderStatus.COMPLETED);
     }
@@ -141,25 +340,21 @@ public class Order implements OrderInterface {
     public void deliver() throws Exception {
     	changeStatus(OrderStatus.DELIVERED);
     	if (isDelivered()) {
-    		OrderLog.logDeliverOrder(this, getPancakes().size());
+    		OrderLog.logDeliverOrder(this, getPancakeCount());
     	}
     }
     
     public void cancel() throws Exception {
     	changeStatus(OrderStatus.CANCELLED);
-    	OrderLog.logCancelOrder(this, getPancakes().size());
+    	OrderLog.logCancelOrder(this, getPancakeCount());
     }
     
     public void updateRepository(OrderRepository orderRepository) {
-    	lock.readLock().lock();
-    	try {
-    		if (status == OrderStatus.CANCELLED || status == OrderStatus.DELIVERED) {
-    			orderRepository.delete(id);
-    		} else {
-    			orderRepository.save(this);
-    		}
-    	} finally {
-    		lock.readLock().unlock();
+    	OrderStatus current = status.get();
+    	if (current == OrderStatus.CANCELLED || current == OrderStatus.DELIVERED) {
+    		orderRepository.delete(id);
+    	} else {
+    		orderRepository.save(this);
     	}
     }
     
@@ -180,12 +375,7 @@ public class Order implements OrderInterface {
     }
     
     private boolean checkIfStatus(OrderStatus qStatus) {
-    	lock.readLock().lock();
-    	try {
-    		return status == qStatus;
-    	} finally {
-			lock.readLock().unlock();
-		}
+    	return status.get() == qStatus;
     }
 
     @Override
@@ -0,0 +1,54 @@
+package org.pancakelab.model;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Expected domain failure, e.g. an order that is in the wrong state for the requested change.
+ *
+ * These are reported to callers as result objects, so they carry no stack trace and the common
+ * ones are preallocated and shared: throwing one allocates nothing.
+ */
+public class OrderException extends Exception {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final OrderException ADDING_NOT_POSSIBLE = new OrderException(ErrorCode.PANCAKES_NOT_CHANGEABLE,
+			"Order is not in the state in which adding pancakes is possible");
+	public static final OrderException REMOVING_NOT_POSSIBLE = new OrderException(ErrorCode.PANCAKES_NOT_CHANGEABLE,
+			"Order is not in the state in which removing pancakes is possible");
+	public static final OrderException CHANGING_NOT_POSSIBLE = new OrderException(ErrorCode.PANCAKES_NOT_CHANGEABLE,
+			ErrorCode.PANCAKES_NOT_CHANGEABLE.getMessage());
+
+	private static final Map<OrderStatus, OrderException> INVALID_TRANSITIONS = new EnumMap<OrderStatus, OrderException>(OrderStatus.class);
+
+	static {
+		for (OrderStatus status : OrderStatus.values()) {
+			INVALID_TRANSITIONS.put(status, new OrderException(ErrorCode.INVALID_STATUS_TRANSITION,
+					"Cannot change status of the order to " + status));
+		}
+	}
+
+	private final ErrorCode errorCode;
+
+	public OrderException(ErrorCode errorCode, String message) {
+		// no cause, no suppressed exceptions and no stack trace, so instances can be shared
+		super(message, null, false, false);
+		this.errorCode = errorCode;
+	}
+
+	public OrderException(ErrorCode errorCode) {
+		this(errorCode, errorCode.getMessage());
+	}
+
+	/**
+	 * @return the shared exception for an order that cannot move to {@code status}
+	 */
+	public static OrderException invalidTransition(OrderStatus status) {
+		return INVALID_TRANSITIONS.get(status);
+	}
+
+	public ErrorCode getErrorCode() {
+		return errorCode;
+	}
+}
@@ -3,7 +3,9 @@ package org.pancakelab.model;
 import org.pancakelab.model.pancakes.OrderRepository;
 import org.pancakelab.model.pancakes.PancakeRecipe;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface OrderInterface {
@@ -14,12 +16,37 @@ public interface OrderInterface {
 
     int getRoom();
 
+    OrderStatus getStatus();
+
     void addPancake(PancakeRecipe pancake) throws Exception;
 
+    int addPancakes(PancakeRecipe pancake, int count) throws Exception;
+
+    int addPancakes(PancakeRecipe pancake, int count, int maxPancakes) throws Exception;
+
     boolean removePancake(String description) throws Exception;
 
+    int removePancakes(String description, int count) throws Exception;
+
+    void applyCart(List<CartLine> lines, int maxPancakes, boolean complete) throws Exception;
+
     List<String> getPancakes();
 
+    List<PancakeRecipe> getPancakeRecipes();
+
+    /**
+     * @return number of pancakes per recipe, with recipes that differ only in ingredient order counted together
+     */
+    default Map<PancakeRecipe, Integer> getPancakeCounts() {
+        Map<PancakeRecipe, Integer> counts = new HashMap<PancakeRecipe, Integer>();
+        for (PancakeRecipe recipe : getPancakeRecipes()) {
+            counts.merge(recipe, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    int getPancakeCount();
+
     List<String> getPancakesToDeliver();
 
     void complete() throws Exception;
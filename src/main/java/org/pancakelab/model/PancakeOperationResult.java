@@ -1,22 +1,54 @@
 package org.pancakelab.model;
 
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.UUID;
 
 public class PancakeOperationResult {
+    // failures that carry no order ID are the same every time, so they are shared
+    private static final Map<ErrorCode, PancakeOperationResult> FAILURES = new EnumMap<ErrorCode, PancakeOperationResult>(ErrorCode.class);
+
+    static {
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            FAILURES.put(errorCode, new PancakeOperationResult(false, null, errorCode, errorCode.getMessage()));
+        }
+    }
+
     private final boolean success;
     private final String message;
     private final UUID orderId;
+    private final ErrorCode errorCode;
 
-    public PancakeOperationResult(boolean success, UUID orderId, String message) {
+    public PancakeOperationResult(boolean success, UUID orderId, ErrorCode errorCode, String message) {
         this.success = success;
         this.message = message;
         this.orderId = orderId;
+        this.errorCode = errorCode;
+    }
+
+    public PancakeOperationResult(boolean success, UUID orderId, String message) {
+        this(success, orderId, success ? ErrorCode.NONE : ErrorCode.UNEXPECTED, message);
     }
     
     public PancakeOperationResult(boolean success, UUID orderId) {
         this(success, orderId, "");
     }
 
+    public static PancakeOperationResult success(UUID orderId) {
+        return new PancakeOperationResult(true, orderId, ErrorCode.NONE, "");
+    }
+
+    public static PancakeOperationResult failure(UUID orderId, ErrorCode errorCode) {
+        if (orderId == null) {
+            return FAILURES.get(errorCode);
+        }
+        return new PancakeOperationResult(false, orderId, errorCode, errorCode.getMessage());
+    }
+
+    public static PancakeOperationResult failure(UUID orderId, Exception e) {
+        return new PancakeOperationResult(false, orderId, ErrorCode.of(e), e.getMessage());
+    }
+
     public boolean isSuccess() {
         return success;
     }
@@ -28,4 +60,8 @@ public class PancakeOperationResult {
     public UUID getOrderId() {
     	return orderId;
     }
-}
\ No newline at end of file
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+}
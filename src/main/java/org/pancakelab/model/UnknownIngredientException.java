@@ -1,10 +1,16 @@
 package org.pancakelab.model;
 
-public class UnknownIngredientException extends Exception {
+public class UnknownIngredientException extends OrderException {
 
 	/**
 	 * 
 	 */
 	private static final long serialVersionUID = 1L;
 
+	public static final UnknownIngredientException INSTANCE = new UnknownIngredientException();
+
+	public UnknownIngredientException() {
+		super(ErrorCode.INVALID_INGREDIENT);
+	}
+
 }
@@ -1,19 +1,43 @@
 package org.pancakelab.model;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public class ViewOrderResult {
+	// failures that carry no order ID are the same every time, so they are shared
+	private static final Map<ErrorCode, ViewOrderResult> FAILURES = new EnumMap<ErrorCode, ViewOrderResult>(ErrorCode.class);
 
-	public ViewOrderResult(boolean success, UUID orderId, List<String> pancakes, String message) {
+	static {
+		for (ErrorCode errorCode : ErrorCode.values()) {
+			FAILURES.put(errorCode, new ViewOrderResult(false, null, List.of(), errorCode, errorCode.getMessage()));
+		}
+	}
+
+	public ViewOrderResult(boolean success, UUID orderId, List<String> pancakes, ErrorCode errorCode, String message) {
 		this.success = success;
 		this.pancakes = pancakes;
 		this.orderId = orderId;
+		this.errorCode = errorCode;
 		this.message = message;
 	}
+
+	public ViewOrderResult(boolean success, UUID orderId, List<String> pancakes, String message) {
+		this(success, orderId, pancakes, success ? ErrorCode.NONE : ErrorCode.UNEXPECTED, message);
+	}
+
+	public static ViewOrderResult failure(UUID orderId, ErrorCode errorCode) {
+		if (orderId == null) {
+			return FAILURES.get(errorCode);
+		}
+		return new ViewOrderResult(false, orderId, List.of(), errorCode, errorCode.getMessage());
+	}
+
 	private final boolean success;
     private final List<String> pancakes;
     private final UUID orderId;
+    private final ErrorCode errorCode;
     private final String message;
     
     public boolean isSuccess() {
@@ -25,6 +49,9 @@ public class ViewOrderResult {
 	public UUID getOrderId() {
 		return orderId;
 	}
+	public ErrorCode getErrorCode() {
+		return errorCode;
+	}
 	public String getMessage() {
 		return message;
 	}
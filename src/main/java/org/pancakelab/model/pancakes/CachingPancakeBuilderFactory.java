@@ -0,0 +1,107 @@
+package org.pancakelab.model.pancakes;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.pancakelab.model.ApprovedIngredients;
+
+/**
+ * Remembers the recipes built for recently requested ingredient lists, so a popular recipe costs
+ * one hash lookup instead of validating and resolving every ingredient again.
+ *
+ * The cache is bounded and split into stripes, each evicting its least recently used recipe, so
+ * threads asking for different recipes rarely contend. Recipes built against an older version of
+ * the ingredient catalog are rebuilt, so a withdrawn ingredient is never served from the cache.
+ * Ingredient lists are keyed as given: the same recipe spelled in a different letter case gets
+ * its own entry, which resolves to the same interned recipe.
+ */
+public class CachingPancakeBuilderFactory implements PancakeBuilderFactory {
+	public static final int DEFAULT_CAPACITY = 1024;
+	private static final int STRIPES = 16;
+
+	private record Entry(PancakeRecipe recipe, long catalogVersion) {
+	}
+
+	private final PancakeBuilderFactory delegate;
+	private final List<Map<List<String>, Entry>> stripes;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	public CachingPancakeBuilderFactory(PancakeBuilderFactory delegate) {
+		this(delegate, DEFAULT_CAPACITY);
+	}
+
+	public CachingPancakeBuilderFactory(PancakeBuilderFactory delegate, int capacity) {
+		if (capacity < STRIPES) {
+			throw new IllegalArgumentException("Capacity must be at least " + STRIPES + ".");
+		}
+		this.delegate = delegate;
+		this.stripes = new ArrayList<Map<List<String>, Entry>>(STRIPES);
+		int stripeCapacity = capacity / STRIPES;
+		for (int i = 0; i < STRIPES; i++) {
+			stripes.add(new LinkedHashMap<List<String>, Entry>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<List<String>, Entry> eldest) {
+					return size() > stripeCapacity;
+				}
+			});
+		}
+	}
+
+	@Override
+	public PancakeBuilder createBuilder() {
+		return delegate.createBuilder();
+	}
+
+	@Override
+	public PancakeRecipe recipeFor(List<String> ingredients) throws Exception {
+		long catalogVersion = ApprovedIngredients.catalog().snapshot().version();
+		Map<List<String>, Entry> stripe = stripeFor(ingredients);
+		Entry entry;
+		synchronized (stripe) {
+			entry = stripe.get(ingredients);
+		}
+		if (entry != null && entry.catalogVersion() == catalogVersion) {
+			hits.increment();
+			return entry.recipe();
+		}
+		misses.increment();
+		// built outside the lock; invalid ingredients throw and are not cached
+		PancakeRecipe recipe = delegate.recipeFor(ingredients);
+		synchronized (stripe) {
+			stripe.put(List.copyOf(ingredients), new Entry(recipe, catalogVersion));
+		}
+		return recipe;
+	}
+
+	public long hitCount() {
+		return hits.sum();
+	}
+
+	public long missCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return number of cached recipes
+	 */
+	public int size() {
+		int size = 0;
+		for (Map<List<String>, Entry> stripe : stripes) {
+			synchronized (stripe) {
+				size += stripe.size();
+			}
+		}
+		return size;
+	}
+
+	private Map<List<String>, Entry> stripeFor(List<String> ingredients) {
+		int h = ingredients.hashCode();
+		return stripes.get((h ^ (h >>> 16)) & (STRIPES - 1));
+	}
+}
@@ -7,25 +7,42 @@ import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.pancakelab.model.OrderInterface;
+import org.pancakelab.model.OrderStatus;
 
 public class InMemoryOrderRepository implements OrderRepository {
 
 	private final Map<UUID, OrderInterface> orders = new ConcurrentHashMap<>();
+	private final OrderStatusIndex statusIndex = new OrderStatusIndex();
 
 	public Optional<OrderInterface> findById(UUID orderId) {
 		return Optional.ofNullable(orders.get(orderId));
 	}
 
 	public void save(OrderInterface order) {
-		orders.put(order.getId(), order);
+		// compute() serializes index maintenance with concurrent saves/deletes of the same order
+		orders.compute(order.getId(), (id, previous) -> {
+			if (OrderStatusIndex.isFinished(order)) {
+				statusIndex.remove(id);
+				return null;
+			}
+			statusIndex.update(order);
+			return order;
+		});
 	}
 
 	public void delete(UUID orderId) {
-		orders.remove(orderId);
+		orders.computeIfPresent(orderId, (id, previous) -> {
+			statusIndex.remove(id);
+			return null;
+		});
 	}
 
 	public Collection<OrderInterface> findAll() {
 		return orders.values();
 	}
 
+	public Collection<OrderInterface> findByStatus(OrderStatus status) {
+		return statusIndex.find(status);
+	}
+
 }
@@ -0,0 +1,259 @@
+package org.pancakelab.model.pancakes;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.pancakelab.model.Order;
+import org.pancakelab.model.OrderInterface;
+import org.pancakelab.model.OrderStatus;
+
+/**
+ * In-memory repository that survives restarts by writing every save and delete to an
+ * {@link OrderJournal} and replaying it on startup.
+ *
+ * Each save records the full state of the order (pancakes included), so adding or removing
+ * pancakes is journaled by the {@code updateRepository} call that follows it. This trades write
+ * amplification for simple recovery: every change rewrites the whole order, one group per
+ * distinct recipe (up to a few hundred bytes for a large mixed order), where a per-change record
+ * would be a few dozen bytes. Replay never has to combine records, and a snapshot taken while
+ * writers run stays correct (see {@link #snapshot()}).
+ *
+ * A save or delete becomes visible in the map and status index only once its record is durable,
+ * and concurrent writes to different orders share one sync through group commit. If the journal
+ * write fails, the caller gets an exception and neither the map nor the status index changes.
+ * The map holds the caller's own order instance, though, so a stored order that was changed
+ * before the failed save already shows the change; only the journal and the status index do not.
+ *
+ * When a snapshot interval is given, a background thread periodically writes all live orders
+ * to an {@link OrderSnapshots} file without blocking writers, then drops the journal segments
+ * the snapshot covers. Recovery loads the newest snapshot and replays only the journal tail.
+ */
+public class JournaledOrderRepository implements OrderRepository, AutoCloseable {
+
+	private final Map<UUID, OrderInterface> orders = new ConcurrentHashMap<>();
+	private final OrderStatusIndex statusIndex = new OrderStatusIndex();
+	// orders whose delete record is queued but not yet durable
+	private final Set<UUID> deleting = ConcurrentHashMap.newKeySet();
+	// saves share it from appending a record until the map shows it; snapshot() takes it
+	// exclusively to find a journal position whose saves are all in the map. Always taken
+	// after the order's monitor, never before.
+	private final ReentrantReadWriteLock publishing = new ReentrantReadWriteLock();
+	private final OrderSnapshots snapshots;
+	private final OrderJournal journal;
+	private final ScheduledExecutorService snapshotScheduler;
+
+	public JournaledOrderRepository(Path directory) throws IOException {
+		this(directory, OrderJournal.DEFAULT_SEGMENT_SIZE, Duration.ZERO);
+	}
+
+	/**
+	 * @param snapshotInterval time between background snapshots, {@code Duration.ZERO} to only snapshot on request
+	 */
+	public JournaledOrderRepository(Path directory, long segmentSize, Duration snapshotInterval) throws IOException {
+		this.snapshots = new OrderSnapshots(directory);
+		long snapshotLsn = directory.toFile().isDirectory() ? snapshots.readLatest(this::restore) : 0;
+		this.journal = new OrderJournal(directory, segmentSize, snapshotLsn, this::replay);
+
+		if (snapshotInterval.isZero()) {
+			this.snapshotScheduler = null;
+		} else {
+			this.snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "order-snapshot-writer");
+				thread.setDaemon(true);
+				return thread;
+			});
+			long period = snapshotInterval.toMillis();
+			snapshotScheduler.scheduleWithFixedDelay(this::snapshotInBackground, period, period, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	public Optional<OrderInterface> findById(UUID orderId) {
+		return Optional.ofNullable(orders.get(orderId));
+	}
+
+	/**
+	 * Writes of one order are ordered by the order's monitor, the one {@code PancakeService} holds
+	 * around {@code updateRepository}. The sync is awaited outside the map's locks, so saves of
+	 * other orders proceed and share its group commit.
+	 */
+	public void save(OrderInterface order) {
+		UUID orderId = order.getId();
+		synchronized (order) {
+			publishing.readLock().lock();
+			try {
+				if (deleting.contains(orderId)) {
+					return; // a delete is being made durable and wins
+				}
+				if (OrderStatusIndex.isFinished(order)) {
+					// cancelled or delivered since the caller decided to save it
+					if (orders.containsKey(orderId)) {
+						awaitDurable(journal.append(OrderRecordCodec.encodeDelete(orderId)));
+						orders.remove(orderId);
+						statusIndex.remove(orderId);
+					}
+					return;
+				}
+				awaitDurable(journal.append(OrderRecordCodec.encodeSave(order)));
+				orders.put(orderId, order);
+				statusIndex.update(order);
+			} finally {
+				publishing.readLock().unlock();
+			}
+		}
+	}
+
+	public void delete(UUID orderId) {
+		deleteAll(List.of(orderId));
+	}
+
+	/**
+	 * Queues all delete records before waiting, so they share a single group commit. The orders
+	 * stay visible until their records are durable; orders whose record failed are kept.
+	 *
+	 * Only one order's monitor is held at a time, and never while waiting.
+	 */
+	@Override
+	public void deleteAll(Collection<UUID> orderIds) {
+		List<OrderInterface> queued = new ArrayList<>(orderIds.size());
+		List<CompletableFuture<Long>> pending = new ArrayList<>(orderIds.size());
+		for (UUID orderId : orderIds) {
+			OrderInterface order = orders.get(orderId);
+			if (order == null) {
+				continue;
+			}
+			synchronized (order) {
+				if (orders.get(orderId) == order && deleting.add(orderId)) {
+					queued.add(order);
+					pending.add(journal.append(OrderRecordCodec.encodeDelete(orderId)));
+				}
+			}
+		}
+
+		RuntimeException failure = null;
+		for (int i = 0; i < queued.size(); i++) {
+			OrderInterface order = queued.get(i);
+			boolean durable;
+			try {
+				awaitDurable(pending.get(i));
+				durable = true;
+			} catch (RuntimeException e) {
+				durable = false;
+				failure = failure == null ? e : failure;
+			}
+			synchronized (order) {
+				if (durable) {
+					orders.remove(order.getId(), order);
+					statusIndex.remove(order.getId());
+				}
+				deleting.remove(order.getId());
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	public Collection<OrderInterface> findAll() {
+		return orders.values();
+	}
+
+	public Collection<OrderInterface> findByStatus(OrderStatus status) {
+		return statusIndex.find(status);
+	}
+
+	/**
+	 * Writes a snapshot of all live orders and drops the journal segments it makes redundant.
+	 *
+	 * Writers only pause while the journal position is captured, which waits for saves that are
+	 * durable but not yet in the map. Orders with a delete in flight are left out, as their
+	 * delete may be durable already. Every record up to that position is therefore reflected,
+	 * and replaying the later records over whatever newer state the snapshot caught yields the
+	 * same result, because each record carries the full state of its order.
+	 */
+	public synchronized void snapshot() throws IOException {
+		long lsn;
+		publishing.writeLock().lock();
+		try {
+			lsn = journal.durableLsn();
+		} finally {
+			publishing.writeLock().unlock();
+		}
+		snapshots.write(lsn, orders.values().stream().filter(order -> !deleting.contains(order.getId())).toList());
+		journal.truncateUpTo(lsn);
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (snapshotScheduler != null) {
+			snapshotScheduler.shutdown();
+			try {
+				snapshotScheduler.awaitTermination(1, TimeUnit.MINUTES);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		journal.close();
+	}
+
+	private void snapshotInBackground() {
+		try {
+			snapshot();
+		} catch (IOException | RuntimeException e) {
+			// the journal still holds everything, the next run will try again
+			System.err.println("Order snapshot failed: " + e);
+		}
+	}
+
+	private void restore(Order order) {
+		if (OrderStatusIndex.isFinished(order)) {
+			// never stored; older files may still hold one
+			orders.remove(order.getId());
+			statusIndex.remove(order.getId());
+			return;
+		}
+		orders.put(order.getId(), order);
+		statusIndex.update(order);
+	}
+
+	private void replay(long lsn, byte[] payload) throws IOException {
+		ByteBuffer in = ByteBuffer.wrap(payload);
+		byte type = in.get();
+		if (type == OrderRecordCodec.SAVE) {
+			restore(OrderRecordCodec.readOrder(in));
+		} else if (type == OrderRecordCodec.DELETE) {
+			UUID orderId = OrderRecordCodec.readId(in);
+			orders.remove(orderId);
+			statusIndex.remove(orderId);
+		} else {
+			throw new IOException("Unknown journal record type " + type + " at lsn " + lsn);
+		}
+	}
+
+	private static void awaitDurable(CompletableFuture<Long> written) {
+		try {
+			written.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof IOException io) {
+				throw new UncheckedIOException(io);
+			}
+			throw new IllegalStateException("Journal write failed", e.getCause());
+		}
+	}
+}
@@ -0,0 +1,321 @@
+package org.pancakelab.model.pancakes;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Segmented append-only journal with group commit.
+ *
+ * Callers enqueue records and get a future that completes once the record is on disk.
+ * A single writer thread drains everything queued since the previous flush, writes it
+ * with one {@code write} and makes it durable with one {@code force}, so concurrent
+ * callers share the cost of a sync.
+ *
+ * Frame layout: length(4) lsn(8) payload(length) crc32(4), where the CRC covers lsn and payload.
+ * A torn or corrupt frame ends replay and is cut off the segment.
+ *
+ * A failed write may leave such a frame behind, and every record after it would be lost on
+ * replay. The journal therefore fails for good on the first write error: the records not yet
+ * synced fail, and so does every later append, until the journal is reopened.
+ */
+final class OrderJournal implements AutoCloseable {
+	static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+	private static final int MAX_BATCH = 1024;
+	private static final int FRAME_OVERHEAD = 4 + 8 + 4;
+	private static final String SEGMENT_PREFIX = "journal-";
+	private static final String SEGMENT_SUFFIX = ".log";
+
+	@FunctionalInterface
+	interface RecordHandler {
+		void accept(long lsn, byte[] payload) throws IOException;
+	}
+
+	@FunctionalInterface
+	interface SegmentOpener {
+		FileChannel open(Path path) throws IOException;
+	}
+
+	private static final class PendingRecord {
+		final byte[] payload;
+		final CompletableFuture<Long> written = new CompletableFuture<>();
+		long lsn;
+
+		PendingRecord(byte[] payload) {
+			this.payload = payload;
+		}
+	}
+
+	private static final PendingRecord CLOSE = new PendingRecord(null);
+
+	private final Path directory;
+	private final long segmentSize;
+	private final SegmentOpener opener;
+	private final BlockingQueue<PendingRecord> pending = new LinkedBlockingQueue<>();
+	private final Thread writer;
+	private final CRC32 crc = new CRC32();
+
+	private volatile boolean closed;
+	private volatile Exception failure;
+	private volatile long durableLsn;
+	private FileChannel segment;
+	private long segmentBytes;
+	private long nextLsn;
+	private ByteBuffer batchBuffer = ByteBuffer.allocate(64 * 1024);
+
+	/**
+	 * Opens the journal and replays the records that come after {@code afterLsn}.
+	 * Segments holding only older records are skipped without being read.
+	 */
+	OrderJournal(Path directory, long segmentSize, long afterLsn, RecordHandler replayHandler) throws IOException {
+		this(directory, segmentSize, afterLsn, replayHandler,
+				path -> FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+	}
+
+	OrderJournal(Path directory, long segmentSize, long afterLsn, RecordHandler replayHandler, SegmentOpener opener) throws IOException {
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.opener = opener;
+		Files.createDirectories(directory);
+
+		long lastLsn = afterLsn;
+		List<Path> segments = segments();
+		for (int i = 0; i < segments.size(); i++) {
+			if (i + 1 < segments.size() && firstLsn(segments.get(i + 1)) <= afterLsn + 1) {
+				continue;
+			}
+			lastLsn = Math.max(lastLsn, replaySegment(segments.get(i), afterLsn, replayHandler));
+		}
+		nextLsn = lastLsn + 1;
+		durableLsn = lastLsn;
+		openSegment(nextLsn);
+
+		writer = new Thread(this::writeLoop, "order-journal-writer");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Queues a record for the next group commit.
+	 * @return future completing with the record's log sequence number once it is durable
+	 */
+	CompletableFuture<Long> append(byte[] payload) {
+		PendingRecord record = new PendingRecord(payload);
+		if (closed) {
+			record.written.completeExceptionally(new IllegalStateException("Journal is closed"));
+			return record.written;
+		}
+		if (failure != null) {
+			record.written.completeExceptionally(failed());
+			return record.written;
+		}
+		pending.add(record);
+		return record.written;
+	}
+
+	/**
+	 * @return highest log sequence number whose record, and every record before it, is on disk
+	 */
+	long durableLsn() {
+		return durableLsn;
+	}
+
+	/**
+	 * Deletes the segments whose records all have a sequence number of at most {@code lsn}.
+	 * The segment currently being written is never deleted.
+	 */
+	void truncateUpTo(long lsn) throws IOException {
+		List<Path> segments = segments();
+		for (int i = 0; i + 1 < segments.size(); i++) {
+			if (firstLsn(segments.get(i + 1)) <= lsn + 1) {
+				Files.deleteIfExists(segments.get(i));
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		pending.add(CLOSE);
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		// anything that raced past the closed flag after the writer stopped
+		for (PendingRecord record; (record = pending.poll()) != null; ) {
+			record.written.completeExceptionally(new IllegalStateException("Journal is closed"));
+		}
+		segment.close();
+	}
+
+	private void writeLoop() {
+		List<PendingRecord> batch = new ArrayList<>(MAX_BATCH);
+		boolean running = true;
+		while (running) {
+			try {
+				batch.add(pending.take());
+			} catch (InterruptedException e) {
+				continue;
+			}
+			pending.drainTo(batch, MAX_BATCH - 1);
+			running = !batch.remove(CLOSE);
+
+			if (failure != null) {
+				IOException e = failed();
+				batch.forEach(record -> record.written.completeExceptionally(e));
+			} else {
+				try {
+					writeBatch(batch);
+				} catch (IOException | RuntimeException e) {
+					failure = e;
+					// records synced before the error stay completed
+					batch.forEach(record -> record.written.completeExceptionally(e));
+				}
+			}
+			batch.clear();
+		}
+	}
+
+	private void writeBatch(List<PendingRecord> batch) throws IOException {
+		batchBuffer.clear();
+		int unsynced = 0;
+		for (int i = 0; i < batch.size(); i++) {
+			PendingRecord record = batch.get(i);
+			int frameSize = FRAME_OVERHEAD + record.payload.length;
+			if (segmentBytes > 0 && segmentBytes + batchBuffer.position() + frameSize > segmentSize) {
+				flush(batch.subList(unsynced, i));
+				unsynced = i;
+				segment.close();
+				openSegment(nextLsn);
+			}
+			ensureCapacity(frameSize);
+
+			int start = batchBuffer.position();
+			record.lsn = nextLsn++;
+			batchBuffer.putInt(record.payload.length);
+			batchBuffer.putLong(record.lsn);
+			batchBuffer.put(record.payload);
+			crc.reset();
+			crc.update(batchBuffer.array(), start + 4, 8 + record.payload.length);
+			batchBuffer.putInt((int) crc.getValue());
+		}
+		flush(batch.subList(unsynced, batch.size()));
+	}
+
+	/**
+	 * Writes and syncs the buffered frames, then completes their records.
+	 */
+	private void flush(List<PendingRecord> records) throws IOException {
+		batchBuffer.flip();
+		while (batchBuffer.hasRemaining()) {
+			segmentBytes += segment.write(batchBuffer);
+		}
+		segment.force(false);
+		durableLsn = nextLsn - 1;
+		batchBuffer.clear();
+		for (PendingRecord record : records) {
+			record.written.complete(record.lsn);
+		}
+	}
+
+	private IOException failed() {
+		return new IOException("Journal failed on an earlier write and must be reopened", failure);
+	}
+
+	private void ensureCapacity(int frameSize) {
+		if (batchBuffer.remaining() < frameSize) {
+			ByteBuffer larger = ByteBuffer.allocate(Math.max(batchBuffer.capacity() * 2, batchBuffer.position() + frameSize));
+			batchBuffer.flip();
+			larger.put(batchBuffer);
+			batchBuffer = larger;
+		}
+	}
+
+	private void openSegment(long firstLsn) throws IOException {
+		Path path = directory.resolve(SEGMENT_PREFIX + "%020d".formatted(firstLsn) + SEGMENT_SUFFIX);
+		segment = opener.open(path);
+		segmentBytes = segment.size();
+	}
+
+	private static long firstLsn(Path segment) {
+		String name = segment.getFileName().toString();
+		return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(path -> {
+						String name = path.getFileName().toString();
+						return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+					})
+					.sorted()
+					.toList();
+		}
+	}
+
+	/**
+	 * Feeds every intact record after {@code afterLsn} to the handler and truncates a torn tail.
+	 * @return last log sequence number found in the segment, or 0 if it is empty
+	 */
+	private long replaySegment(Path path, long afterLsn, RecordHandler handler) throws IOException {
+		long lastLsn = 0;
+		long validBytes = 0;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			InputStream stream = new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024);
+			DataInputStream in = new DataInputStream(stream);
+			CRC32 check = new CRC32();
+			while (true) {
+				byte[] frame;
+				int storedCrc;
+				try {
+					int length = in.readInt();
+					if (length < 0 || validBytes + FRAME_OVERHEAD + length > channel.size()) {
+						break;
+					}
+					frame = new byte[8 + length];
+					in.readFully(frame);
+					storedCrc = in.readInt();
+				} catch (EOFException e) {
+					break;
+				}
+				check.reset();
+				check.update(frame);
+				if ((int) check.getValue() != storedCrc) {
+					break;
+				}
+				long lsn = ByteBuffer.wrap(frame, 0, 8).getLong();
+				byte[] payload = new byte[frame.length - 8];
+				System.arraycopy(frame, 8, payload, 0, payload.length);
+				if (lsn > afterLsn) {
+					handler.accept(lsn, payload);
+				}
+				lastLsn = lsn;
+				validBytes += FRAME_OVERHEAD + payload.length;
+			}
+			if (validBytes < channel.size()) {
+				channel.truncate(validBytes);
+			}
+		}
+		return lastLsn;
+	}
+}
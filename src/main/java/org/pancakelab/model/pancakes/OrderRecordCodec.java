@@ -0,0 +1,152 @@
+package org.pancakelab.model.pancakes;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.pancakelab.model.Order;
+import org.pancakelab.model.OrderInterface;
+import org.pancakelab.model.OrderStatus;
+
+/**
+ * Binary layout of persisted orders, shared by the journal and the snapshots.
+ *
+ * <pre>
+ * order  : idMsb(8) idLsb(8) building(4) room(4) status(1) groups(4) { count(4) ingredients(1) { length(2) utf8 }* }*
+ * SAVE   : type(1) order
+ * DELETE : type(1) idMsb(8) idLsb(8)
+ * </pre>
+ *
+ * Consecutive identical pancakes are written once with their count.
+ */
+final class OrderRecordCodec {
+	static final byte SAVE = 1;
+	static final byte DELETE = 2;
+
+	private static final OrderStatus[] STATUSES = OrderStatus.values();
+	private static final int ORDER_HEADER_SIZE = 16 + 4 + 4 + 1 + 4;
+
+	private OrderRecordCodec() {
+	}
+
+	/**
+	 * Order state captured once, so that sizing and writing see the same pancakes.
+	 */
+	static final class EncodedOrder {
+		private final OrderInterface order;
+		private final OrderStatus status;
+		private final List<byte[][]> groupIngredients = new ArrayList<>();
+		private final List<Integer> groupCounts = new ArrayList<>();
+		private int size = ORDER_HEADER_SIZE;
+
+		EncodedOrder(OrderInterface order) {
+			this.order = order;
+			this.status = order.getStatus();
+			String lastDescription = null;
+			for (PancakeRecipe recipe : order.getPancakeRecipes()) {
+				String description = recipe.description();
+				if (description.equals(lastDescription)) {
+					int last = groupCounts.size() - 1;
+					groupCounts.set(last, groupCounts.get(last) + 1);
+					continue;
+				}
+				List<String> ingredients = recipe.getIngredients();
+				byte[][] encoded = new byte[ingredients.size()][];
+				size += 4 + 1;
+				for (int i = 0; i < encoded.length; i++) {
+					encoded[i] = ingredients.get(i).getBytes(StandardCharsets.UTF_8);
+					size += 2 + encoded[i].length;
+				}
+				groupIngredients.add(encoded);
+				groupCounts.add(1);
+				lastDescription = description;
+			}
+		}
+
+		int size() {
+			return size;
+		}
+
+		void writeTo(ByteBuffer out) {
+			writeId(out, order.getId());
+			out.putInt(order.getBuilding());
+			out.putInt(order.getRoom());
+			out.put((byte) status.ordinal());
+			out.putInt(groupCounts.size());
+			for (int i = 0; i < groupCounts.size(); i++) {
+				out.putInt(groupCounts.get(i));
+				byte[][] ingredients = groupIngredients.get(i);
+				out.put((byte) ingredients.length);
+				for (byte[] ingredient : ingredients) {
+					out.putShort((short) ingredient.length);
+					out.put(ingredient);
+				}
+			}
+		}
+	}
+
+	static byte[] encodeSave(OrderInterface order) {
+		EncodedOrder encoded = new EncodedOrder(order);
+		ByteBuffer out = ByteBuffer.allocate(1 + encoded.size());
+		out.put(SAVE);
+		encoded.writeTo(out);
+		return out.array();
+	}
+
+	static byte[] encodeDelete(UUID orderId) {
+		ByteBuffer out = ByteBuffer.allocate(1 + 16);
+		out.put(DELETE);
+		writeId(out, orderId);
+		return out.array();
+	}
+
+	static Order readOrder(ByteBuffer in) throws IOException {
+		try {
+			UUID id = readId(in);
+			int building = in.getInt();
+			int room = in.getInt();
+			OrderStatus status = STATUSES[in.get()];
+
+			List<PancakeRecipe> pancakes = new ArrayList<>();
+			int groups = in.getInt();
+			for (int i = 0; i < groups; i++) {
+				int count = in.getInt();
+				int ingredientCount = Byte.toUnsignedInt(in.get());
+				List<String> ingredients = new ArrayList<>(ingredientCount);
+				for (int j = 0; j < ingredientCount; j++) {
+					byte[] name = new byte[Short.toUnsignedInt(in.getShort())];
+					in.get(name);
+					ingredients.add(new String(name, StandardCharsets.UTF_8));
+				}
+				PancakeRecipe recipe = readRecipe(ingredients);
+				for (int j = 0; j < count; j++) {
+					pancakes.add(recipe);
+				}
+			}
+			return Order.restore(id, building, room, status, pancakes);
+		} catch (BufferUnderflowException | ArrayIndexOutOfBoundsException e) {
+			throw new IOException("Truncated or corrupt order record", e);
+		}
+	}
+
+	static void writeId(ByteBuffer out, UUID id) {
+		out.putLong(id.getMostSignificantBits());
+		out.putLong(id.getLeastSignificantBits());
+	}
+
+	static UUID readId(ByteBuffer in) {
+		return new UUID(in.getLong(), in.getLong());
+	}
+
+	private static PancakeRecipe readRecipe(List<String> ingredients) throws IOException {
+		try {
+			return PancakeInterner.intern(ingredients);
+		} catch (Exception e) {
+			throw new IOException("Persisted pancake has unknown ingredients " + ingredients, e);
+		}
+	}
+}
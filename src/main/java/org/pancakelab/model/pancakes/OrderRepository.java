@@ -5,12 +5,32 @@ import java.util.Optional;
 import java.util.UUID;
 
 import org.pancakelab.model.OrderInterface;
+import org.pancakelab.model.OrderStatus;
 
 public interface OrderRepository {
 	
 	public Optional<OrderInterface> findById(UUID orderId);
 	public void save(OrderInterface order);
 	public void delete(UUID orderId);
+	
+	public default void deleteAll(Collection<UUID> orderIds) {
+		for (UUID orderId : orderIds) {
+			delete(orderId);
+		}
+	}
 	public Collection<OrderInterface> findAll();
+	public Collection<OrderInterface> findByStatus(OrderStatus status);
+	
+	public default Collection<OrderInterface> findByBuilding(int building) {
+		return findAll().stream()
+				.filter(order -> order.getBuilding() == building)
+				.toList();
+	}
+	
+	public default Collection<OrderInterface> findByBuildingAndStatus(int building, OrderStatus status) {
+		return findByStatus(status).stream()
+				.filter(order -> order.getBuilding() == building)
+				.toList();
+	}
 }
 
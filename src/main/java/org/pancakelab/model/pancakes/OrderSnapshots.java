@@ -0,0 +1,147 @@
+package org.pancakelab.model.pancakes;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.pancakelab.model.Order;
+import org.pancakelab.model.OrderInterface;
+
+/**
+ * Point-in-time images of all live orders, written to and read from memory-mapped files.
+ *
+ * <pre>
+ * header : magic(4) version(4) lsn(8) orders(4)
+ * body   : orders x order (see {@link OrderRecordCodec})
+ * </pre>
+ *
+ * A snapshot is written to a temporary file and renamed once it is complete and forced,
+ * so the newest {@code snapshot-<lsn>.snap} is always whole. {@code lsn} is the journal
+ * position the snapshot covers; recovery replays only journal records after it.
+ */
+final class OrderSnapshots {
+	private static final int MAGIC = 0x504C534E; // "PLSN"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 4 + 4 + 8 + 4;
+	private static final long INITIAL_MAPPING = 1024 * 1024;
+	private static final String SNAPSHOT_PREFIX = "snapshot-";
+	private static final String SNAPSHOT_SUFFIX = ".snap";
+
+	private final Path directory;
+
+	OrderSnapshots(Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Writes every live order to a new snapshot covering the journal up to {@code lsn} and
+	 * removes the older snapshots. Orders already cancelled or delivered are left out even if
+	 * their delete is not journaled yet.
+	 */
+	void write(long lsn, Collection<OrderInterface> orders) throws IOException {
+		Path temporary = directory.resolve(SNAPSHOT_PREFIX + "%020d".formatted(lsn) + ".tmp");
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, INITIAL_MAPPING);
+			buffer.position(HEADER_SIZE);
+			int count = 0;
+			for (OrderInterface order : orders) {
+				if (OrderStatusIndex.isFinished(order)) {
+					continue;
+				}
+				OrderRecordCodec.EncodedOrder encoded = new OrderRecordCodec.EncodedOrder(order);
+				if (buffer.remaining() < encoded.size()) {
+					buffer = remap(channel, buffer, encoded.size());
+				}
+				encoded.writeTo(buffer);
+				count++;
+			}
+			int size = buffer.position();
+			buffer.putInt(0, MAGIC);
+			buffer.putInt(4, VERSION);
+			buffer.putLong(8, lsn);
+			buffer.putInt(16, count);
+			buffer.force();
+			channel.truncate(size);
+			channel.force(true);
+		}
+
+		Path target = directory.resolve(SNAPSHOT_PREFIX + "%020d".formatted(lsn) + SNAPSHOT_SUFFIX);
+		Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		for (Path older : snapshots()) {
+			if (!older.equals(target)) {
+				Files.deleteIfExists(older);
+			}
+		}
+	}
+
+	/**
+	 * Feeds the orders of the newest snapshot to {@code consumer}.
+	 * @return journal position the snapshot covers, or 0 when there is no snapshot
+	 */
+	long readLatest(Consumer<Order> consumer) throws IOException {
+		Optional<Path> latest = snapshots().stream().reduce((older, newer) -> newer);
+		if (latest.isEmpty()) {
+			return 0;
+		}
+		try (FileChannel channel = FileChannel.open(latest.get(), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Snapshot " + latest.get() + " is too large to map");
+			}
+			MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+			try {
+				if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+					throw new IOException("Unrecognized snapshot " + latest.get());
+				}
+				long lsn = buffer.getLong();
+				int count = buffer.getInt();
+				for (int i = 0; i < count; i++) {
+					consumer.accept(OrderRecordCodec.readOrder(buffer));
+				}
+				return lsn;
+			} catch (BufferUnderflowException e) {
+				throw new IOException("Truncated snapshot " + latest.get(), e);
+			}
+		}
+	}
+
+	private MappedByteBuffer remap(FileChannel channel, MappedByteBuffer buffer, int needed) throws IOException {
+		long required = (long) buffer.position() + needed;
+		long size = buffer.capacity();
+		while (size < required) {
+			size *= 2;
+		}
+		if (size > Integer.MAX_VALUE) {
+			if (required > Integer.MAX_VALUE) {
+				throw new IOException("Snapshot exceeds " + Integer.MAX_VALUE + " bytes");
+			}
+			size = Integer.MAX_VALUE;
+		}
+		buffer.force();
+		MappedByteBuffer larger = channel.map(MapMode.READ_WRITE, 0, size);
+		larger.position(buffer.position());
+		return larger;
+	}
+
+	private List<Path> snapshots() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(path -> {
+						String name = path.getFileName().toString();
+						return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+					})
+					.sorted()
+					.toList();
+		}
+	}
+}
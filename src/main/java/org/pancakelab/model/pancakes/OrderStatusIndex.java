@@ -0,0 +1,58 @@
+package org.pancakelab.model.pancakes;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.pancakelab.model.OrderInterface;
+import org.pancakelab.model.OrderStatus;
+
+/**
+ * Secondary index partitioning orders by their {@link OrderStatus}.
+ *
+ * Callers must serialize {@link #update} and {@link #remove} per order id
+ * (the repositories do it from inside {@code ConcurrentHashMap.compute}).
+ */
+class OrderStatusIndex {
+
+	private final Map<OrderStatus, Map<UUID, OrderInterface>> byStatus = new EnumMap<>(OrderStatus.class);
+	private final Map<UUID, OrderStatus> indexedStatus = new ConcurrentHashMap<>();
+
+	OrderStatusIndex() {
+		for (OrderStatus status : OrderStatus.values()) {
+			byStatus.put(status, new ConcurrentHashMap<>());
+		}
+	}
+
+	void update(OrderInterface order) {
+		OrderStatus status = order.getStatus();
+		OrderStatus previous = indexedStatus.put(order.getId(), status);
+		if (previous != null && previous != status) {
+			byStatus.get(previous).remove(order.getId());
+		}
+		byStatus.get(status).put(order.getId(), order);
+	}
+
+	void remove(UUID orderId) {
+		OrderStatus previous = indexedStatus.remove(orderId);
+		if (previous != null) {
+			byStatus.get(previous).remove(orderId);
+		}
+	}
+
+	/**
+	 * Cancelled and delivered orders are never stored. A save can race with the cancel or delivery
+	 * that is followed by the delete, so the repositories re-check this inside their compute().
+	 */
+	static boolean isFinished(OrderInterface order) {
+		OrderStatus status = order.getStatus();
+		return status == OrderStatus.CANCELLED || status == OrderStatus.DELIVERED;
+	}
+
+	Collection<OrderInterface> find(OrderStatus status) {
+		return Collections.unmodifiableCollection(byStatus.get(status).values());
+	}
+}
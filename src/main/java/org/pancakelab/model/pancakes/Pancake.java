@@ -1,39 +1,86 @@
 package org.pancakelab.model.pancakes;
 
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Optional;
 
 import org.pancakelab.model.ApprovedIngredients;
+import org.pancakelab.model.UnknownIngredientException;
 
 public class Pancake implements PancakeRecipe {
-	List<String> ingredients;
-	
+	// ingredient ordinals (see ApprovedIngredients) in the order they were added
+	private byte[] ingredients;
+	// the same ordinals sorted, so recipes that differ only in ingredient order are equal
+	private byte[] canonical;
+	private int hash;
+	// interned recipes are shared between orders and must never change
+	private final boolean shared;
+
+	private List<String> ingredientNames;
+	private String description;
+
 	public Pancake(List<String> ingredients) throws Exception {
 		this();
 		for (String ingredient : ingredients) {
 			addIngredient(ingredient);
 		}
 	}
-	
+
 	public Pancake() {
-		this.ingredients = new LinkedList<String>();
+		this.ingredients = new byte[0];
+		this.canonical = ingredients;
+		this.hash = hash(canonical);
+		this.shared = false;
+	}
+
+	Pancake(byte[] ingredients, boolean shared) {
+		this.ingredients = ingredients;
+		this.canonical = ingredients.clone();
+		Arrays.sort(canonical);
+		this.hash = hash(canonical);
+		this.shared = shared;
+		// computed up front so shared instances are effectively immutable once published
+		this.ingredientNames = names(ingredients);
+		this.description = PancakeRecipe.super.description();
 	}
 
 	@Override
 	public List<String> getIngredients() {
-		return ingredients.stream().toList();
+		if (ingredientNames == null) {
+			ingredientNames = names(ingredients);
+		}
+		return ingredientNames;
+	}
+
+	@Override
+	public String description() {
+		if (description == null) {
+			description = PancakeRecipe.super.description();
+		}
+		return description;
 	}
-	
+
 	public void addIngredient(String ingredient) throws Exception {
+		if (shared) {
+			throw new UnsupportedOperationException("Interned pancake recipes cannot be changed");
+		}
 		// validating ingredients
-		if (!ApprovedIngredients.isApproved(ingredient)) {
-			throw new Exception("Ingredient invalid value");
+		int ordinal = ApprovedIngredients.ordinalOf(ingredient);
+		if (ordinal < 0) {
+			throw UnknownIngredientException.INSTANCE;
 		}
-		this.ingredients.addAll(getApprovedIngredients(List.of(ingredient)));
+		ingredients = Arrays.copyOf(ingredients, ingredients.length + 1);
+		ingredients[ingredients.length - 1] = (byte) ordinal;
+		canonical = insertSorted(canonical, (byte) ordinal);
+		hash = hash(canonical);
+		ingredientNames = null;
+		description = null;
+	}
+
+	byte[] ordinals() {
+		return ingredients;
 	}
-	
+
 	@Override
 	public boolean equals(Object obj) {
 		if (this == obj) {
@@ -43,31 +90,14 @@ public class Pancake implements PancakeRecipe {
 			return false;
 		}
 		Pancake other = (Pancake) obj;
-		return this.getIngredients().stream().sorted().toList()
-	            .equals(other.getIngredients().stream().sorted().toList());
+		return hash == other.hash && Arrays.equals(canonical, other.canonical);
 	}
-	
+
 	@Override
 	public int hashCode() {
-		int hashCode = 0;
-		for (String ingredient: ingredients) {
-			hashCode += ingredient.hashCode();
-		}
-		return hashCode;
+		return hash;
 	}
-    
-    /**
-     * Filters and returns only approved ingredients, converted to lowercase.
-     */
-    private List<String> getApprovedIngredients(List<String> ingredients) {
-        return  Optional.ofNullable(ingredients)
-        	    .orElse(Collections.emptyList())
-        	    .stream()
-                .map(String::toLowerCase)  
-                .filter(ApprovedIngredients.getAll()::contains) 
-                .toList();
-    }
-    
+
     /**
      * Make sense to provide users with available ingredients
      * @return List of ingredients
@@ -75,4 +105,34 @@ public class Pancake implements PancakeRecipe {
     public List<String> getAvailableIngredients() {
     	return new LinkedList<String>(ApprovedIngredients.getAll());
     }
+
+    private static byte[] insertSorted(byte[] sorted, byte ordinal) {
+    	int at = 0;
+    	while (at < sorted.length && sorted[at] <= ordinal) {
+    		at++;
+    	}
+    	byte[] result = new byte[sorted.length + 1];
+    	System.arraycopy(sorted, 0, result, 0, at);
+    	result[at] = ordinal;
+    	System.arraycopy(sorted, at, result, at + 1, sorted.length - at);
+    	return result;
+    }
+
+    private static int hash(byte[] sorted) {
+    	// Arrays.hashCode of small ordinals clusters in a narrow range, so spread the bits
+    	int h = Arrays.hashCode(sorted);
+    	h ^= h >>> 16;
+    	h *= 0x85ebca6b;
+    	h ^= h >>> 13;
+    	h *= 0xc2b2ae35;
+    	return h ^ (h >>> 16);
+    }
+
+    private static List<String> names(byte[] ordinals) {
+    	String[] names = new String[ordinals.length];
+    	for (int i = 0; i < ordinals.length; i++) {
+    		names[i] = ApprovedIngredients.nameOf(ordinals[i]);
+    	}
+    	return List.of(names);
+    }
 }
@@ -1,5 +1,18 @@
 package org.pancakelab.model.pancakes;
 
+import java.util.List;
+
 public interface PancakeBuilderFactory {
     PancakeBuilder createBuilder();
-}
\ No newline at end of file
+
+    /**
+     * Builds the recipe for the given ingredients, in the given order.
+     */
+    default PancakeRecipe recipeFor(List<String> ingredients) throws Exception {
+        PancakeBuilder builder = createBuilder();
+        for (String ingredient : ingredients) {
+            builder.addIngredient(ingredient);
+        }
+        return builder.build();
+    }
+}
@@ -1,20 +1,43 @@
 package org.pancakelab.model.pancakes;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Arrays;
+
+import org.pancakelab.model.ApprovedIngredients;
+import org.pancakelab.model.IngredientCatalog;
+import org.pancakelab.model.UnknownIngredientException;
 
 public class PancakeBuilderImpl implements PancakeBuilder {
 	
-	private final List<String> ingredients = new LinkedList<String>();
+	// the whole recipe is validated against the menu in effect when the builder was created or reset
+	private IngredientCatalog.Snapshot catalog = ApprovedIngredients.catalog().snapshot();
+	private byte[] ingredients = new byte[4];
+	private int size;
+	private final PancakeInterner.RecipeKey probe = new PancakeInterner.RecipeKey();
 
 	@Override
 	public PancakeBuilder addIngredient(String ingredient) throws Exception {
-		this.ingredients.add(ingredient.toLowerCase());
+		int ordinal = catalog.ordinalOf(ingredient);
+		if (ordinal < 0) {
+			throw UnknownIngredientException.INSTANCE;
+		}
+		if (size == ingredients.length) {
+			ingredients = Arrays.copyOf(ingredients, size * 2);
+		}
+		ingredients[size++] = (byte) ordinal;
         return this;
 	}
 
 	@Override
 	public PancakeRecipe build() throws Exception {
-		return new Pancake(this.ingredients);
+		return PancakeInterner.intern(ingredients, size, probe);
+	}
+
+	/**
+	 * Clears the ingredients added so far, so the builder can be used for the next recipe.
+	 */
+	PancakeBuilderImpl reset() {
+		size = 0;
+		catalog = ApprovedIngredients.catalog().snapshot();
+		return this;
 	}
 }
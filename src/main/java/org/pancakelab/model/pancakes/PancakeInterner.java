@@ -0,0 +1,113 @@
+package org.pancakelab.model.pancakes;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.pancakelab.model.ApprovedIngredients;
+import org.pancakelab.model.UnknownIngredientException;
+
+/**
+ * Resolves identical ingredient sequences to one shared, immutable {@link Pancake}.
+ *
+ * The table is bounded: very long recipes and recipes seen after it fills up get their own
+ * (still immutable) instance instead of growing it without limit.
+ */
+final class PancakeInterner {
+	static final int MAX_INTERNED_INGREDIENTS = 16;
+	static final int MAX_INTERNED_RECIPES = 4096;
+
+	private static final Map<RecipeKey, Pancake> RECIPES = new ConcurrentHashMap<>();
+	private static final byte[] EMPTY = new byte[0];
+
+	private PancakeInterner() {
+	}
+
+	/**
+	 * Ordinals of a recipe; also used as a reusable lookup probe over the first {@code length}
+	 * bytes of a builder's buffer, so a lookup needs no copy of the buffer.
+	 */
+	static final class RecipeKey {
+		private byte[] ordinals;
+		private int length;
+		private int hash;
+
+		RecipeKey() {
+			this(new byte[0]);
+		}
+
+		RecipeKey(byte[] ordinals) {
+			set(ordinals, ordinals.length);
+		}
+
+		RecipeKey set(byte[] ordinals, int length) {
+			int h = 1;
+			for (int i = 0; i < length; i++) {
+				h = 31 * h + ordinals[i];
+			}
+			this.ordinals = ordinals;
+			this.length = length;
+			this.hash = h;
+			return this;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof RecipeKey other && Arrays.equals(ordinals, 0, length, other.ordinals, 0, other.length);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	/**
+	 * @param ordinals ingredient ordinals in recipe order; the array is owned by the interner afterwards
+	 */
+	static Pancake intern(byte[] ordinals) {
+		if (ordinals.length > MAX_INTERNED_INGREDIENTS) {
+			return new Pancake(ordinals, true);
+		}
+		RecipeKey key = new RecipeKey(ordinals);
+		Pancake pancake = RECIPES.get(key);
+		if (pancake != null) {
+			return pancake;
+		}
+		if (RECIPES.size() >= MAX_INTERNED_RECIPES) {
+			return new Pancake(ordinals, true);
+		}
+		return RECIPES.computeIfAbsent(key, k -> new Pancake(ordinals, true));
+	}
+
+	/**
+	 * Interns the first {@code length} ordinals of {@code buffer}, which stays owned by the caller.
+	 * A recipe that is already interned is found through {@code probe} without allocating.
+	 */
+	static Pancake intern(byte[] buffer, int length, RecipeKey probe) {
+		if (length <= MAX_INTERNED_INGREDIENTS) {
+			Pancake pancake = RECIPES.get(probe.set(buffer, length));
+			probe.set(EMPTY, 0); // do not keep the caller's buffer reachable
+			if (pancake != null) {
+				return pancake;
+			}
+		}
+		return intern(Arrays.copyOf(buffer, length));
+	}
+
+	/**
+	 * Interns a persisted recipe; ingredients that have been withdrawn from the menu since are accepted.
+	 */
+	static Pancake intern(List<String> ingredients) throws Exception {
+		byte[] ordinals = new byte[ingredients.size()];
+		for (int i = 0; i < ordinals.length; i++) {
+			int ordinal = ApprovedIngredients.catalog().restoredOrdinalOf(ingredients.get(i));
+			if (ordinal < 0) {
+				throw UnknownIngredientException.INSTANCE;
+			}
+			ordinals[i] = (byte) ordinal;
+		}
+		return intern(ordinals);
+	}
+}
@@ -0,0 +1,201 @@
+package org.pancakelab.model.pancakes;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.pancakelab.model.OrderInterface;
+import org.pancakelab.model.OrderStatus;
+
+/**
+ * In-memory repository partitioned into independent shards by building.
+ *
+ * Each shard has its own order map and status index, and keeps the orders of every building
+ * it owns in a per-building map and status index, so building queries never scan other
+ * buildings. Writes to different shards share nothing but the id directory used by
+ * {@link #findById} and {@link #delete}.
+ */
+public class ShardedOrderRepository implements OrderRepository {
+	public static final int DEFAULT_SHARD_COUNT = 16;
+
+	private final Shard[] shards;
+	// views are created once, so queries allocate nothing until they are iterated
+	private final Collection<OrderInterface> allOrders;
+	private final Map<OrderStatus, Collection<OrderInterface>> ordersByStatus = new EnumMap<>(OrderStatus.class);
+	// shard holding each order; written only from inside that shard's compute()
+	private final Map<UUID, Shard> directory = new ConcurrentHashMap<>();
+
+	public ShardedOrderRepository() {
+		this(DEFAULT_SHARD_COUNT);
+	}
+
+	public ShardedOrderRepository(int shardCount) {
+		if (shardCount <= 0) {
+			throw new IllegalArgumentException("Shard count must be greater than zero.");
+		}
+		shards = new Shard[shardCount];
+		for (int i = 0; i < shardCount; i++) {
+			shards[i] = new Shard();
+		}
+		allOrders = new ShardedView(shard -> shard.orders.values());
+		for (OrderStatus status : OrderStatus.values()) {
+			ordersByStatus.put(status, new ShardedView(shard -> shard.statusIndex.find(status)));
+		}
+	}
+
+	private static final class Shard {
+		private final Map<UUID, OrderInterface> orders = new ConcurrentHashMap<>();
+		private final OrderStatusIndex statusIndex = new OrderStatusIndex();
+		private final Map<Integer, BuildingOrders> buildings = new ConcurrentHashMap<>();
+
+		private BuildingOrders building(int building) {
+			return buildings.computeIfAbsent(building, number -> new BuildingOrders());
+		}
+	}
+
+	/**
+	 * Concatenation of one collection per shard, read through on every call.
+	 */
+	private final class ShardedView extends AbstractCollection<OrderInterface> {
+		private final Function<Shard, Collection<OrderInterface>> part;
+
+		private ShardedView(Function<Shard, Collection<OrderInterface>> part) {
+			this.part = part;
+		}
+
+		@Override
+		public Iterator<OrderInterface> iterator() {
+			return Arrays.stream(shards).flatMap(shard -> part.apply(shard).stream()).iterator();
+		}
+
+		@Override
+		public int size() {
+			int size = 0;
+			for (Shard shard : shards) {
+				size += part.apply(shard).size();
+			}
+			return size;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			for (Shard shard : shards) {
+				if (!part.apply(shard).isEmpty()) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			for (Shard shard : shards) {
+				if (part.apply(shard).contains(o)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private static final class BuildingOrders {
+		private final Map<UUID, OrderInterface> orders = new ConcurrentHashMap<>();
+		private final OrderStatusIndex statusIndex = new OrderStatusIndex();
+	}
+
+	public Optional<OrderInterface> findById(UUID orderId) {
+		Shard shard = directory.get(orderId);
+		return shard == null ? Optional.empty() : Optional.ofNullable(shard.orders.get(orderId));
+	}
+
+	public void save(OrderInterface order) {
+		Shard shard = shardFor(order.getBuilding());
+		shard.orders.compute(order.getId(), (id, previous) -> {
+			if (OrderStatusIndex.isFinished(order)) {
+				if (previous != null) {
+					unlink(shard, id, previous);
+				}
+				return null;
+			}
+			BuildingOrders building = shard.building(order.getBuilding());
+			building.orders.put(id, order);
+			building.statusIndex.update(order);
+			shard.statusIndex.update(order);
+			directory.put(id, shard);
+			return order;
+		});
+	}
+
+	public void delete(UUID orderId) {
+		Shard shard = directory.get(orderId);
+		if (shard == null) {
+			return;
+		}
+		shard.orders.computeIfPresent(orderId, (id, previous) -> {
+			unlink(shard, id, previous);
+			return null;
+		});
+	}
+
+	/**
+	 * @return live, unmodifiable view over all shards, like {@link InMemoryOrderRepository#findAll()}
+	 */
+	public Collection<OrderInterface> findAll() {
+		return allOrders;
+	}
+
+	/**
+	 * @return live, unmodifiable view over all shards, like {@link InMemoryOrderRepository#findByStatus}
+	 */
+	public Collection<OrderInterface> findByStatus(OrderStatus status) {
+		return ordersByStatus.get(status);
+	}
+
+	@Override
+	public Collection<OrderInterface> findByBuilding(int building) {
+		BuildingOrders orders = shardFor(building).buildings.get(building);
+		return orders == null ? List.of() : Collections.unmodifiableCollection(orders.orders.values());
+	}
+
+	@Override
+	public Collection<OrderInterface> findByBuildingAndStatus(int building, OrderStatus status) {
+		BuildingOrders orders = shardFor(building).buildings.get(building);
+		return orders == null ? List.of() : orders.statusIndex.find(status);
+	}
+
+	/**
+	 * @return all orders, split by shard so that the shards are traversed in parallel
+	 */
+	public Stream<OrderInterface> parallelStream() {
+		return Arrays.stream(shards).parallel().flatMap(shard -> shard.orders.values().stream());
+	}
+
+	/**
+	 * @return orders with the given status, split by shard so that the shards are traversed in parallel
+	 */
+	public Stream<OrderInterface> parallelStream(OrderStatus status) {
+		return Arrays.stream(shards).parallel().flatMap(shard -> shard.statusIndex.find(status).stream());
+	}
+
+	private void unlink(Shard shard, UUID id, OrderInterface previous) {
+		BuildingOrders building = shard.buildings.get(previous.getBuilding());
+		building.orders.remove(id);
+		building.statusIndex.remove(id);
+		shard.statusIndex.remove(id);
+		directory.remove(id);
+	}
+
+	private Shard shardFor(int building) {
+		return shards[Math.floorMod(building, shards.length)];
+	}
+}
@@ -0,0 +1,26 @@
+package org.pancakelab.model.pancakes;
+
+/**
+ * Hands every thread its own {@link PancakeBuilderImpl}, reset for each recipe, so building a
+ * recipe that is already interned allocates nothing.
+ *
+ * A builder is only valid until this thread's next {@link #createBuilder()}, which resets and
+ * hands out the same instance again: finish one recipe before starting another, and never pass
+ * a builder to another thread.
+ *
+ * Reuse only pays off on long-lived threads such as a fixed pool. A thread that builds a single
+ * recipe, e.g. each virtual thread of {@code AsyncPancakeService}, still allocates a builder and
+ * its buffer, plus a thread-local entry. There, wrap the factory in a
+ * {@link CachingPancakeBuilderFactory}, whose hits allocate nothing on any thread.
+ */
+public class ThreadLocalPancakeBuilderFactory implements PancakeBuilderFactory {
+	private final ThreadLocal<PancakeBuilderImpl> builders = ThreadLocal.withInitial(PancakeBuilderImpl::new);
+
+	/**
+	 * @return this thread's builder, reset; valid until this thread calls again
+	 */
+	@Override
+	public PancakeBuilder createBuilder() {
+		return builders.get().reset();
+	}
+}
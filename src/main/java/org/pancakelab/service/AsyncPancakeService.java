@@ -0,0 +1,126 @@
+package org.pancakelab.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import org.pancakelab.model.CartLine;
+import org.pancakelab.model.DeliveryResult;
+import org.pancakelab.model.PancakeOperationResult;
+import org.pancakelab.model.ViewOrderResult;
+
+/**
+ * Non-blocking facade over {@link PancakeService}.
+ *
+ * Every call runs on the executor and completes its future with the result the synchronous
+ * service would have returned. Calls for an existing order go to that order's mailbox (see
+ * {@link OrderMailboxes}) and run one after another, in the order they were made, on a single
+ * worker; calls for different orders run in parallel.
+ *
+ * By default the work runs on virtual threads when the runtime supports them, and on an
+ * unbounded cached pool otherwise.
+ */
+public class AsyncPancakeService implements AutoCloseable {
+    private final PancakeService pancakeService;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final OrderMailboxes mailboxes;
+
+    public AsyncPancakeService(PancakeService pancakeService) {
+        this.pancakeService = pancakeService;
+        this.ownedExecutor = newTaskExecutor();
+        this.executor = ownedExecutor;
+        this.mailboxes = new OrderMailboxes(executor);
+    }
+
+    /**
+     * @param executor runs the calls; a caller-runs executor makes them synchronous, and calls it
+     *                 rejects complete exceptionally with its {@code RejectedExecutionException}
+     */
+    public AsyncPancakeService(PancakeService pancakeService, Executor executor) {
+        this.pancakeService = pancakeService;
+        this.executor = executor;
+        this.ownedExecutor = null;
+        this.mailboxes = new OrderMailboxes(executor);
+    }
+
+    public CompletableFuture<PancakeOperationResult> createOrder(int building, int room) {
+        return CompletableFuture.supplyAsync(() -> pancakeService.createOrder(building, room), executor);
+    }
+
+    public CompletableFuture<PancakeOperationResult> addPancakes(UUID orderId, List<String> ingredients, int count) {
+        return submit(orderId, () -> pancakeService.addPancakes(orderId, ingredients, count));
+    }
+
+    public CompletableFuture<PancakeOperationResult> removePancakes(String description, UUID orderId, int count) {
+        return submit(orderId, () -> pancakeService.removePancakes(description, orderId, count));
+    }
+
+    public CompletableFuture<PancakeOperationResult> submitCart(UUID orderId, List<CartLine> lines, boolean complete) {
+        return submit(orderId, () -> pancakeService.submitCart(orderId, lines, complete));
+    }
+
+    public CompletableFuture<ViewOrderResult> viewOrder(UUID orderId) {
+        return submit(orderId, () -> pancakeService.viewOrder(orderId));
+    }
+
+    public CompletableFuture<PancakeOperationResult> cancelOrder(UUID orderId) {
+        return submit(orderId, () -> pancakeService.cancelOrder(orderId));
+    }
+
+    public CompletableFuture<PancakeOperationResult> completeOrder(UUID orderId) {
+        return submit(orderId, () -> pancakeService.completeOrder(orderId));
+    }
+
+    public CompletableFuture<Set<UUID>> listCompletedOrders() {
+        return CompletableFuture.supplyAsync(pancakeService::listCompletedOrders, executor);
+    }
+
+    public CompletableFuture<PancakeOperationResult> prepareOrder(UUID orderId) {
+        return submit(orderId, () -> pancakeService.prepareOrder(orderId));
+    }
+
+    public CompletableFuture<Set<UUID>> listPreparedOrders() {
+        return CompletableFuture.supplyAsync(pancakeService::listPreparedOrders, executor);
+    }
+
+    public CompletableFuture<DeliveryResult> deliverOrder(UUID orderId) {
+        return submit(orderId, () -> pancakeService.deliverOrder(orderId));
+    }
+
+    /**
+     * Shuts down the default executor; an executor passed in by the caller is left running.
+     */
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(UUID orderId, Supplier<T> call) {
+        if (orderId == null) {
+            // rejected by the service without touching any order
+            return CompletableFuture.supplyAsync(call, executor);
+        }
+        return mailboxes.submit(orderId, call);
+    }
+
+    private static ExecutorService newTaskExecutor() {
+        try {
+            // Java 21+: one virtual thread per call
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "async-pancake-service");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.pancakelab.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.pancakelab.model.OrderInterface;
+
+/**
+ * Queue of completed orders waiting for a chef.
+ *
+ * Register it with {@link PancakeService#addListener}: every completed order is queued in
+ * {@link Priority} order, and chefs take the best one with {@link #takeNextOrder()} in
+ * O(log n) instead of scanning {@code listCompletedOrders()}. Orders that were cancelled or
+ * prepared in the meantime are skipped when they reach the head of the queue.
+ *
+ * All chefs share one queue, so each of them always gets the globally best order and none
+ * of them can sit idle while another has work queued.
+ */
+public class KitchenScheduler implements OrderListener, AutoCloseable {
+
+	public enum Priority {
+		/** First completed, first prepared. */
+		COMPLETION_TIME(Comparator.comparingLong(Ticket::sequence)),
+		/** Orders with fewer pancakes first, then by completion time. */
+		ORDER_SIZE(Comparator.comparingInt(Ticket::pancakes).thenComparingLong(Ticket::sequence)),
+		/** Orders grouped by building, then by completion time. */
+		BUILDING(Comparator.comparingInt(Ticket::building).thenComparingLong(Ticket::sequence));
+
+		private final Comparator<Ticket> comparator;
+
+		Priority(Comparator<Ticket> comparator) {
+			this.comparator = comparator;
+		}
+	}
+
+	private record Ticket(OrderInterface order, long sequence, int pancakes, int building) {
+	}
+
+	private final PriorityBlockingQueue<Ticket> queue;
+	private final AtomicLong sequence = new AtomicLong();
+	private final List<Thread> chefs = new ArrayList<Thread>();
+
+	public KitchenScheduler() {
+		this(Priority.COMPLETION_TIME);
+	}
+
+	public KitchenScheduler(Priority priority) {
+		this.queue = new PriorityBlockingQueue<Ticket>(64, priority.comparator);
+	}
+
+	@Override
+	public void onCompleted(OrderInterface order) {
+		queue.add(new Ticket(order, sequence.getAndIncrement(), order.getPancakeCount(), order.getBuilding()));
+	}
+
+	/**
+	 * Waits until a completed order is available and hands it to the caller.
+	 * @return ID of the order to prepare
+	 */
+	public UUID takeNextOrder() throws InterruptedException {
+		while (true) {
+			Ticket ticket = queue.take();
+			if (ticket.order().isCompleted()) {
+				return ticket.order().getId();
+			}
+		}
+	}
+
+	/**
+	 * Waits at most {@code timeout} for a completed order.
+	 * @return ID of the order to prepare, empty if none arrived in time
+	 */
+	public Optional<UUID> takeNextOrder(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		while (true) {
+			Ticket ticket = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+			if (ticket == null) {
+				return Optional.empty();
+			}
+			if (ticket.order().isCompleted()) {
+				return Optional.of(ticket.order().getId());
+			}
+		}
+	}
+
+	/**
+	 * @return number of queued orders, including ones that are no longer completed
+	 */
+	public int queuedOrders() {
+		return queue.size();
+	}
+
+	/**
+	 * Starts {@code count} daemon chef threads that take orders one by one and pass them to
+	 * {@code chef}, typically {@code orderId -> pancakeService.prepareOrder(orderId)}. An order the
+	 * chef fails on is reported and skipped; the chef goes on with the next one.
+	 */
+	public synchronized void startChefs(int count, Consumer<UUID> chef) {
+		for (int i = 0; i < count; i++) {
+			Thread thread = new Thread(() -> {
+				try {
+					while (!Thread.currentThread().isInterrupted()) {
+						UUID orderId = takeNextOrder();
+						try {
+							chef.accept(orderId);
+						} catch (RuntimeException e) {
+							System.err.println("Preparing order " + orderId + " failed: " + e);
+						}
+					}
+				} catch (InterruptedException e) {
+					// kitchen closed
+				}
+			}, "chef-" + chefs.size());
+			thread.setDaemon(true);
+			chefs.add(thread);
+			thread.start();
+		}
+	}
+
+	/**
+	 * Stops the chef threads once they finish the order they are working on. If the caller is
+	 * interrupted while waiting, the chefs still stop on their own and the interrupt is kept.
+	 */
+	@Override
+	public synchronized void close() {
+		for (Thread chef : chefs) {
+			chef.interrupt();
+		}
+		try {
+			for (Thread chef : chefs) {
+				chef.join();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		chefs.clear();
+	}
+}
@@ -0,0 +1,15 @@
+package org.pancakelab.service;
+
+import java.util.UUID;
+
+import org.pancakelab.model.OrderStatus;
+
+/**
+ * A change made to an order, numbered in publication order by {@link OrderEventBus}.
+ */
+public record OrderEvent(long sequence, Type type, UUID orderId, int building, int room, OrderStatus status, int pancakeCount) {
+
+	public enum Type {
+		CREATED, PANCAKES_CHANGED, COMPLETED, PREPARED, DELIVERED, CANCELLED
+	}
+}
@@ -0,0 +1,220 @@
+package org.pancakelab.service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+import org.pancakelab.model.OrderInterface;
+import org.pancakelab.model.OrderStatus;
+
+/**
+ * In-process feed of order lifecycle events, so displays can react to changes instead of polling.
+ *
+ * Register it with {@link PancakeService#addListener}. Every event gets the next sequence number
+ * and is kept in a bounded history. Subscribers pick the events they want with a filter, pull
+ * them with {@link Flow.Subscription#request} and receive them asynchronously on the executor;
+ * a subscriber can resume from any sequence number still in the history. A subscriber that
+ * falls further behind than the history reaches gets {@code onError} instead of silently
+ * missing events. As with {@code SubmissionPublisher}, a subscriber whose {@code onNext} throws
+ * is cancelled and gets the exception through {@code onError}.
+ */
+public class OrderEventBus implements OrderListener, Flow.Publisher<OrderEvent> {
+	public static final int DEFAULT_HISTORY_SIZE = 4096;
+
+	private final AtomicReferenceArray<OrderEvent> history;
+	private final Executor executor;
+	private volatile long latestSequence;
+	private final Set<EventSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+	public OrderEventBus() {
+		this(DEFAULT_HISTORY_SIZE, ForkJoinPool.commonPool());
+	}
+
+	public OrderEventBus(int historySize, Executor executor) {
+		if (historySize <= 0) {
+			throw new IllegalArgumentException("History size must be greater than zero.");
+		}
+		this.history = new AtomicReferenceArray<OrderEvent>(historySize);
+		this.executor = executor;
+	}
+
+	public static Predicate<OrderEvent> withStatus(OrderStatus status) {
+		return event -> event.status() == status;
+	}
+
+	public static Predicate<OrderEvent> inBuilding(int building) {
+		return event -> event.building() == building;
+	}
+
+	/**
+	 * @return sequence number of the last published event, 0 before the first one
+	 */
+	public long latestSequence() {
+		return latestSequence;
+	}
+
+	/**
+	 * Subscribes to all events published from now on.
+	 */
+	@Override
+	public void subscribe(Flow.Subscriber<? super OrderEvent> subscriber) {
+		subscribe(subscriber, event -> true, latestSequence + 1);
+	}
+
+	/**
+	 * Subscribes to the events matching {@code filter}, starting with sequence number {@code fromSequence}.
+	 */
+	public void subscribe(Flow.Subscriber<? super OrderEvent> subscriber, Predicate<OrderEvent> filter, long fromSequence) {
+		EventSubscription subscription = new EventSubscription(subscriber, filter, Math.max(1, fromSequence));
+		subscriptions.add(subscription);
+		executor.execute(() -> subscriber.onSubscribe(subscription));
+	}
+
+	/**
+	 * @return number of subscriptions that are neither cancelled nor failed
+	 */
+	int subscriberCount() {
+		return subscriptions.size();
+	}
+
+	@Override
+	public void onCreated(OrderInterface order) {
+		publish(OrderEvent.Type.CREATED, order);
+	}
+
+	@Override
+	public void onPancakesChanged(OrderInterface order) {
+		publish(OrderEvent.Type.PANCAKES_CHANGED, order);
+	}
+
+	@Override
+	public void onCompleted(OrderInterface order) {
+		publish(OrderEvent.Type.COMPLETED, order);
+	}
+
+	@Override
+	public void onPrepared(OrderInterface order) {
+		publish(OrderEvent.Type.PREPARED, order);
+	}
+
+	@Override
+	public void onDelivered(OrderInterface order) {
+		publish(OrderEvent.Type.DELIVERED, order);
+	}
+
+	@Override
+	public void onCancelled(OrderInterface order) {
+		publish(OrderEvent.Type.CANCELLED, order);
+	}
+
+	private void publish(OrderEvent.Type type, OrderInterface order) {
+		synchronized (this) {
+			long sequence = latestSequence + 1;
+			history.set(slot(sequence), new OrderEvent(sequence, type, order.getId(), order.getBuilding(), order.getRoom(),
+					order.getStatus(), order.getPancakeCount()));
+			latestSequence = sequence;
+		}
+		for (EventSubscription subscription : subscriptions) {
+			subscription.signal();
+		}
+	}
+
+	private int slot(long sequence) {
+		return (int) (sequence % history.length());
+	}
+
+	private final class EventSubscription implements Flow.Subscription {
+		private final Flow.Subscriber<? super OrderEvent> subscriber;
+		private final Predicate<OrderEvent> filter;
+		private final AtomicLong demand = new AtomicLong();
+		// number of signals not yet handled; only the drain that takes it from 0 runs
+		private final AtomicInteger pendingSignals = new AtomicInteger();
+		private long nextSequence;
+		private volatile boolean cancelled;
+		private volatile Throwable error;
+
+		private EventSubscription(Flow.Subscriber<? super OrderEvent> subscriber, Predicate<OrderEvent> filter, long fromSequence) {
+			this.subscriber = subscriber;
+			this.filter = filter;
+			this.nextSequence = fromSequence;
+		}
+
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				fail(new IllegalArgumentException("Requested event count must be positive, got " + n));
+				return;
+			}
+			demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+			signal();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			subscriptions.remove(this);
+		}
+
+		private void signal() {
+			if (pendingSignals.getAndIncrement() == 0) {
+				executor.execute(this::drain);
+			}
+		}
+
+		private void drain() {
+			int signals = pendingSignals.get();
+			do {
+				deliver();
+				signals = pendingSignals.addAndGet(-signals);
+			} while (signals != 0);
+		}
+
+		private void deliver() {
+			while (!cancelled) {
+				if (error != null) {
+					terminate(error);
+					return;
+				}
+				if (demand.get() == 0 || nextSequence > latestSequence) {
+					return;
+				}
+				OrderEvent event = history.get(slot(nextSequence));
+				if (event == null || event.sequence() != nextSequence) {
+					error = new IllegalStateException("Event " + nextSequence + " is no longer in the history");
+					continue;
+				}
+				nextSequence++;
+				try {
+					if (filter.test(event)) {
+						demand.decrementAndGet();
+						subscriber.onNext(event);
+					}
+				} catch (Throwable e) {
+					terminate(e);
+					return;
+				}
+			}
+		}
+
+		private void terminate(Throwable failure) {
+			cancel();
+			try {
+				subscriber.onError(failure);
+			} catch (Throwable e) {
+				System.err.println("Order event subscriber failed: " + e);
+			}
+		}
+
+		private void fail(Throwable failure) {
+			// reported from the drain, so it never overlaps onNext
+			error = failure;
+			signal();
+		}
+	}
+}
@@ -0,0 +1,209 @@
+package org.pancakelab.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.pancakelab.model.OrderInterface;
+import org.pancakelab.model.OrderStatus;
+
+/**
+ * Cancels orders that have been idle for longer than the timeout configured for their status,
+ * e.g. carts that were created and then abandoned.
+ *
+ * Register it with {@link PancakeService#addListener} and {@link #start()} it. Every change to an
+ * order pushes its deadline into a timer wheel; each tick only looks at the bucket that is due,
+ * so a sweep costs time proportional to the orders expiring in it, never a scan of all orders.
+ * Deadlines that were replaced by later activity stay in the wheel and are skipped when their
+ * bucket comes up. Expired orders are cancelled through {@link PancakeService#cancelOrder}, which
+ * evicts them from the repository like any other cancellation.
+ *
+ * Orders that already exist when the sweeper is started, e.g. ones restored from a journal,
+ * are tracked from that moment on. Events for orders that are no longer in the repository are
+ * ignored, so a dead order never gets a deadline again.
+ */
+public class OrderExpiry implements OrderListener, AutoCloseable {
+	public static final Duration DEFAULT_TICK = Duration.ofSeconds(1);
+	public static final int DEFAULT_WHEEL_SIZE = 512;
+
+	private record Deadline(UUID orderId, long expiresAt) {
+	}
+
+	private final PancakeService pancakeService;
+	private final Map<OrderStatus, Long> idleTimeouts = new EnumMap<OrderStatus, Long>(OrderStatus.class);
+	private final long tickMillis;
+	private final Clock clock;
+	private final List<Queue<Deadline>> wheel;
+	// latest deadline of every tracked order; wheel entries that differ from it are stale
+	private final Map<UUID, Long> deadlines = new ConcurrentHashMap<>();
+	private volatile long sweptTick;
+	private ScheduledExecutorService sweeper;
+
+	public OrderExpiry(PancakeService pancakeService, Map<OrderStatus, Duration> idleTimeouts) {
+		this(pancakeService, idleTimeouts, DEFAULT_TICK, DEFAULT_WHEEL_SIZE, Clock.systemUTC());
+	}
+
+	public OrderExpiry(PancakeService pancakeService, Map<OrderStatus, Duration> idleTimeouts, Duration tick, int wheelSize, Clock clock) {
+		if (tick.toMillis() <= 0 || wheelSize <= 0) {
+			throw new IllegalArgumentException("Tick and wheel size must be greater than zero.");
+		}
+		this.pancakeService = pancakeService;
+		idleTimeouts.forEach((status, timeout) -> this.idleTimeouts.put(status, timeout.toMillis()));
+		this.tickMillis = tick.toMillis();
+		this.clock = clock;
+		this.wheel = new ArrayList<Queue<Deadline>>(wheelSize);
+		for (int i = 0; i < wheelSize; i++) {
+			wheel.add(new ConcurrentLinkedQueue<Deadline>());
+		}
+		this.sweptTick = clock.millis() / tickMillis;
+	}
+
+	/**
+	 * Starts tracking the orders already in the repository and sweeping once per tick on a daemon thread.
+	 */
+	public synchronized void start() {
+		if (sweeper == null) {
+			trackExistingOrders();
+			sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "order-expiry");
+				thread.setDaemon(true);
+				return thread;
+			});
+			sweeper.scheduleWithFixedDelay(this::sweep, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public synchronized void close() {
+		if (sweeper != null) {
+			sweeper.shutdownNow();
+			sweeper = null;
+		}
+	}
+
+	@Override
+	public void onCreated(OrderInterface order) {
+		touch(order);
+	}
+
+	@Override
+	public void onPancakesChanged(OrderInterface order) {
+		touch(order);
+	}
+
+	@Override
+	public void onCompleted(OrderInterface order) {
+		touch(order);
+	}
+
+	@Override
+	public void onPrepared(OrderInterface order) {
+		touch(order);
+	}
+
+	@Override
+	public void onDelivered(OrderInterface order) {
+		deadlines.remove(order.getId());
+	}
+
+	@Override
+	public void onCancelled(OrderInterface order) {
+		deadlines.remove(order.getId());
+	}
+
+	/**
+	 * @return number of orders that currently have a deadline
+	 */
+	public int trackedOrders() {
+		return deadlines.size();
+	}
+
+	/**
+	 * Cancels the orders whose deadline passed in the ticks since the previous sweep.
+	 */
+	void sweep() {
+		long now = clock.millis();
+		long nowTick = now / tickMillis;
+		List<Deadline> later = new ArrayList<Deadline>();
+		for (long tick = sweptTick + 1; tick <= nowTick; tick++) {
+			Queue<Deadline> bucket = wheel.get((int) (tick % wheel.size()));
+			for (Deadline deadline = bucket.poll(); deadline != null; deadline = bucket.poll()) {
+				Long current = deadlines.get(deadline.orderId());
+				if (current == null || current != deadline.expiresAt()) {
+					continue; // the order was touched again or is gone
+				}
+				if (deadline.expiresAt() > now) {
+					later.add(deadline); // due in a later turn of the wheel
+				} else {
+					expire(deadline);
+				}
+			}
+			if (tick - sweptTick >= wheel.size()) {
+				break; // every bucket has been visited
+			}
+		}
+		sweptTick = nowTick;
+		for (Deadline deadline : later) {
+			schedule(deadline);
+		}
+	}
+
+	/**
+	 * Gives every stored order with a timeout a full idle period from now, unless an event already
+	 * gave it a deadline.
+	 */
+	void trackExistingOrders() {
+		long now = clock.millis();
+		idleTimeouts.forEach((status, timeout) -> {
+			for (OrderInterface order : pancakeService.findOrders(status)) {
+				Deadline deadline = new Deadline(order.getId(), now + timeout);
+				if (deadlines.putIfAbsent(order.getId(), deadline.expiresAt()) == null) {
+					schedule(deadline);
+				}
+			}
+		});
+	}
+
+	private void touch(OrderInterface order) {
+		Long timeout = idleTimeouts.get(order.getStatus());
+		if (timeout == null || pancakeService.findOrder(order.getId()).isEmpty()) {
+			deadlines.remove(order.getId());
+			return;
+		}
+		Deadline deadline = new Deadline(order.getId(), clock.millis() + timeout);
+		deadlines.put(order.getId(), deadline.expiresAt());
+		schedule(deadline);
+	}
+
+	private void schedule(Deadline deadline) {
+		// a bucket the sweeper is draining right now is visited again one turn later at the latest
+		long tick = Math.max(deadline.expiresAt() / tickMillis, sweptTick + 1);
+		wheel.get((int) (tick % wheel.size())).add(deadline);
+	}
+
+	private void expire(Deadline deadline) {
+		Optional<OrderInterface> order = pancakeService.findOrder(deadline.orderId());
+		if (order.isEmpty()) {
+			deadlines.remove(deadline.orderId(), deadline.expiresAt());
+			return;
+		}
+		// changes notify this listener under the order's monitor, so while it is held the
+		// deadline cannot move between the check and the cancel
+		synchronized (order.get()) {
+			if (deadlines.remove(deadline.orderId(), deadline.expiresAt())) {
+				pancakeService.cancelOrder(deadline.orderId());
+			}
+		}
+	}
+}
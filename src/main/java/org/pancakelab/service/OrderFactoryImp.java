@@ -4,9 +4,18 @@ import org.pancakelab.model.Order;
 import org.pancakelab.model.OrderInterface;
 
 public class OrderFactoryImp implements OrderFactory {
+	private final OrderIdGenerator idGenerator;
+
+	public OrderFactoryImp() {
+		this(OrderIdGenerator.random());
+	}
+
+	public OrderFactoryImp(OrderIdGenerator idGenerator) {
+		this.idGenerator = idGenerator;
+	}
 
 	@Override
 	public OrderInterface createOrder(int building, int room) {
-		return new Order(building, room);
+		return new Order(idGenerator.nextId(), building, room);
 	}
 }
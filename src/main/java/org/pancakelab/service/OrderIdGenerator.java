@@ -0,0 +1,21 @@
+package org.pancakelab.service;
+
+import java.util.UUID;
+
+public interface OrderIdGenerator {
+	UUID nextId();
+
+	/**
+	 * Random version 4 ids from {@link UUID#randomUUID()}; they cannot be guessed from other ids.
+	 */
+	static OrderIdGenerator random() {
+		return UUID::randomUUID;
+	}
+
+	/**
+	 * Time-ordered version 7 ids, see {@link TimeOrderedIdGenerator}.
+	 */
+	static OrderIdGenerator timeOrdered() {
+		return new TimeOrderedIdGenerator();
+	}
+}
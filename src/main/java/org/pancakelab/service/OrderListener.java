@@ -0,0 +1,32 @@
+package org.pancakelab.service;
+
+import org.pancakelab.model.OrderInterface;
+
+/**
+ * Receives the changes {@link PancakeService} makes to orders.
+ *
+ * Callbacks run on the calling thread right after the change is saved, so they must be quick
+ * and must not call back into the service for the same order. Callbacks for one order arrive in
+ * the order its changes happened; callbacks for different orders may run concurrently. An
+ * exception thrown by a callback is reported and does not affect the change or other listeners.
+ */
+public interface OrderListener {
+
+	default void onCreated(OrderInterface order) {
+	}
+
+	default void onPancakesChanged(OrderInterface order) {
+	}
+
+	default void onCompleted(OrderInterface order) {
+	}
+
+	default void onPrepared(OrderInterface order) {
+	}
+
+	default void onDelivered(OrderInterface order) {
+	}
+
+	default void onCancelled(OrderInterface order) {
+	}
+}
@@ -1,29 +1,357 @@
 package org.pancakelab.service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
 import org.pancakelab.model.OrderInterface;
 
-public class OrderLog {
-    private static final StringBuilder log = new StringBuilder();
+/**
+ * Order audit log.
+ *
+ * Callers only copy a fixed-size event into a preallocated ring buffer; a background thread
+ * renders the events and appends them to {@code orders.log}, rolling it to {@code orders.log.1..n}
+ * when it grows past the configured size. When the ring is full, events are either dropped
+ * (and counted) or the caller waits for space, depending on the {@link OverflowPolicy}.
+ *
+ * The static log methods write to the log configured through system properties:
+ * <ul>
+ * <li>{@code pancakelab.orderlog.dir} - directory of the log files, logging is off when unset</li>
+ * <li>{@code pancakelab.orderlog.capacity} - ring size in events, default 8192</li>
+ * <li>{@code pancakelab.orderlog.overflow} - {@code DROP} (default) or {@code BLOCK}</li>
+ * <li>{@code pancakelab.orderlog.maxFileSize} - bytes per file before rolling, default 16 MB</li>
+ * <li>{@code pancakelab.orderlog.maxFiles} - rolled files to keep, default 5</li>
+ * </ul>
+ */
+public class OrderLog implements AutoCloseable {
+
+    public enum OverflowPolicy {
+        DROP, BLOCK
+    }
+
+    static final String LOG_FILE = "orders.log";
+
+    private static final byte ADD_PANCAKES = 1;
+    private static final byte REMOVE_PANCAKES = 2;
+    private static final byte CANCEL_ORDER = 3;
+    private static final byte DELIVER_ORDER = 4;
+
+    private static final long IDLE_PARK_NANOS = 100_000;
+
+    private static final OrderLog DEFAULT = fromSystemProperties();
+
+    private final int mask;
+    private final OverflowPolicy overflowPolicy;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private final Path directory;
+
+    // one event per slot; a slot is readable once published holds its sequence
+    private final AtomicLongArray published;
+    private final byte[] types;
+    private final long[] idMostBits;
+    private final long[] idLeastBits;
+    private final int[] buildings;
+    private final int[] rooms;
+    private final int[] counts;
+    private final long[] pancakesInOrder;
+    private final String[] descriptions;
+
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+    private volatile long flushed;
+    private final LongAdder dropped = new LongAdder();
+
+    private final Thread consumer;
+    private volatile boolean running = true;
+    private BufferedWriter writer;
+    private long fileSize;
+
+    public OrderLog(Path directory, int capacity, OverflowPolicy overflowPolicy, long maxFileSize, int maxFiles) throws IOException {
+        if (capacity <= 0 || maxFileSize <= 0 || maxFiles < 0) {
+            throw new IllegalArgumentException("Invalid order log configuration.");
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.overflowPolicy = overflowPolicy;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+        this.directory = directory;
+
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+        this.types = new byte[size];
+        this.idMostBits = new long[size];
+        this.idLeastBits = new long[size];
+        this.buildings = new int[size];
+        this.rooms = new int[size];
+        this.counts = new int[size];
+        this.pancakesInOrder = new long[size];
+        this.descriptions = new String[size];
 
-    public static void logAddPancake(OrderInterface order, String description, long pancakesInOrder) {
-        log.append("Added pancake with description '%s' ".formatted(description))
-           .append("to order %s containing %d pancakes, ".formatted(order.getId(), pancakesInOrder))
-           .append("for building %d, room %d.".formatted(order.getBuilding(), order.getRoom()));
+        Files.createDirectories(directory);
+        openWriter();
+        this.consumer = new Thread(this::consume, "order-log-writer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    public static void logAddPancakes(OrderInterface order, String description, int count, long pancakesInOrder) {
+        if (DEFAULT != null) {
+            DEFAULT.publish(ADD_PANCAKES, order, description, count, pancakesInOrder);
+        }
     }
 
     public static void logRemovePancakes(OrderInterface order, String description, int count, long pancakesInOrder) {
-        log.append("Removed %d pancake(s) with description '%s' ".formatted(count, description))
-           .append("from order %s now containing %d pancakes, ".formatted(order.getId(), pancakesInOrder))
-           .append("for building %d, room %d.".formatted(order.getBuilding(), order.getRoom()));
+        if (DEFAULT != null) {
+            DEFAULT.publish(REMOVE_PANCAKES, order, description, count, pancakesInOrder);
+        }
     }
 
     public static void logCancelOrder(OrderInterface order, long pancakesInOrder) {
-        log.append("Cancelled order %s with %d pancakes ".formatted(order.getId(), pancakesInOrder))
-           .append("for building %d, room %d.".formatted(order.getBuilding(), order.getRoom()));
+        if (DEFAULT != null) {
+            DEFAULT.publish(CANCEL_ORDER, order, null, 0, pancakesInOrder);
+        }
     }
 
     public static void logDeliverOrder(OrderInterface order, long pancakesInOrder) {
-        log.append("Order %s with %d pancakes ".formatted(order.getId(), pancakesInOrder))
-           .append("for building %d, room %d out for delivery.".formatted(order.getBuilding(), order.getRoom()));
+        if (DEFAULT != null) {
+            DEFAULT.publish(DELIVER_ORDER, order, null, 0, pancakesInOrder);
+        }
+    }
+
+    void addPancakes(OrderInterface order, String description, int count, long pancakesInOrder) {
+        publish(ADD_PANCAKES, order, description, count, pancakesInOrder);
+    }
+
+    void removePancakes(OrderInterface order, String description, int count, long pancakesInOrder) {
+        publish(REMOVE_PANCAKES, order, description, count, pancakesInOrder);
+    }
+
+    void cancelOrder(OrderInterface order, long pancakesInOrder) {
+        publish(CANCEL_ORDER, order, null, 0, pancakesInOrder);
+    }
+
+    void deliverOrder(OrderInterface order, long pancakesInOrder) {
+        publish(DELIVER_ORDER, order, null, 0, pancakesInOrder);
+    }
+
+    /**
+     * @return number of events dropped because the ring was full
+     */
+    public long droppedEvents() {
+        return dropped.sum();
+    }
+
+    /**
+     * Waits until every event published before the call is written to the log file.
+     */
+    public void flush() {
+        long target = claimed.get();
+        while (running && flushed < target) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void publish(byte type, OrderInterface order, String description, int count, long pancakes) {
+        long sequence;
+        while (true) {
+            if (!running) {
+                return;
+            }
+            sequence = claimed.get();
+            if (sequence - consumed > mask) {
+                if (overflowPolicy == OverflowPolicy.DROP) {
+                    dropped.increment();
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            if (claimed.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+
+        int slot = (int) (sequence & mask);
+        UUID id = order.getId();
+        types[slot] = type;
+        idMostBits[slot] = id.getMostSignificantBits();
+        idLeastBits[slot] = id.getLeastSignificantBits();
+        buildings[slot] = order.getBuilding();
+        rooms[slot] = order.getRoom();
+        counts[slot] = count;
+        pancakesInOrder[slot] = pancakes;
+        descriptions[slot] = description;
+        published.lazySet(slot, sequence);
+    }
+
+    private void consume() {
+        StringBuilder line = new StringBuilder(256);
+        long next = 0;
+        boolean dirty = false;
+        while (true) {
+            int slot = (int) (next & mask);
+            if (published.get(slot) == next) {
+                render(slot, line);
+                descriptions[slot] = null;
+                next++;
+                consumed = next;
+                write(line);
+                dirty = true;
+                continue;
+            }
+            if (dirty) {
+                flushWriter();
+                flushed = next;
+                dirty = false;
+            }
+            if (!running && next == claimed.get()) {
+                break;
+            }
+            if (!running) {
+                // a producer claimed a slot before close and is still filling it
+                Thread.onSpinWait();
+                continue;
+            }
+            flushed = next;
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        flushed = next;
+        closeWriter();
+    }
+
+    private void render(int slot, StringBuilder line) {
+        line.setLength(0);
+        UUID id = new UUID(idMostBits[slot], idLeastBits[slot]);
+        switch (types[slot]) {
+            case ADD_PANCAKES -> line.append("Added ").append(counts[slot])
+                    .append(" pancake(s) with description '").append(descriptions[slot])
+                    .append("' to order ").append(id).append(" containing ").append(pancakesInOrder[slot])
+                    .append(" pancakes, for building ").append(buildings[slot]).append(", room ").append(rooms[slot]).append('.');
+            case REMOVE_PANCAKES -> line.append("Removed ").append(counts[slot])
+                    .append(" pancake(s) with description '").append(descriptions[slot])
+                    .append("' from order ").append(id).append(" now containing ").append(pancakesInOrder[slot])
+                    .append(" pancakes, for building ").append(buildings[slot]).append(", room ").append(rooms[slot]).append('.');
+            case CANCEL_ORDER -> line.append("Cancelled order ").append(id).append(" with ").append(pancakesInOrder[slot])
+                    .append(" pancakes for building ").append(buildings[slot]).append(", room ").append(rooms[slot]).append('.');
+            case DELIVER_ORDER -> line.append("Order ").append(id).append(" with ").append(pancakesInOrder[slot])
+                    .append(" pancakes for building ").append(buildings[slot]).append(", room ").append(rooms[slot])
+                    .append(" out for delivery.");
+            default -> line.append("Unknown order event ").append(types[slot]).append(" for order ").append(id);
+        }
+        line.append(System.lineSeparator());
+    }
+
+    private void write(StringBuilder line) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            if (fileSize + line.length() > maxFileSize && fileSize > 0) {
+                roll();
+            }
+            writer.append(line);
+            fileSize += line.length();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void roll() throws IOException {
+        writer.close();
+        Path current = directory.resolve(LOG_FILE);
+        if (maxFiles == 0) {
+            Files.deleteIfExists(current);
+        } else {
+            Files.deleteIfExists(directory.resolve(LOG_FILE + "." + maxFiles));
+            for (int i = maxFiles - 1; i >= 1; i--) {
+                Path older = directory.resolve(LOG_FILE + "." + i);
+                if (Files.exists(older)) {
+                    Files.move(older, directory.resolve(LOG_FILE + "." + (i + 1)), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(current, directory.resolve(LOG_FILE + ".1"), StandardCopyOption.REPLACE_EXISTING);
+        }
+        openWriter();
+    }
+
+    private void openWriter() throws IOException {
+        Path file = directory.resolve(LOG_FILE);
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        fileSize = Files.size(file);
+    }
+
+    private void flushWriter() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void closeWriter() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            fail(e);
+        }
+        writer = null;
+    }
+
+    private void fail(IOException e) {
+        // keep draining the ring so producers never stall on a broken disk
+        System.err.println("Order log write failed, further events are discarded: " + e);
+        writer = null;
+    }
+
+    private static OrderLog fromSystemProperties() {
+        String directory = System.getProperty("pancakelab.orderlog.dir");
+        if (directory == null || directory.isBlank()) {
+            return null;
+        }
+        try {
+            OrderLog log = new OrderLog(Path.of(directory),
+                    Integer.getInteger("pancakelab.orderlog.capacity", 8192),
+                    OverflowPolicy.valueOf(System.getProperty("pancakelab.orderlog.overflow", OverflowPolicy.DROP.name())),
+                    Long.getLong("pancakelab.orderlog.maxFileSize", 16L * 1024 * 1024),
+                    Integer.getInteger("pancakelab.orderlog.maxFiles", 5));
+            Runtime.getRuntime().addShutdownHook(new Thread(log::close, "order-log-shutdown"));
+            return log;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Order log disabled: " + e);
+            return null;
+        }
     }
 }
@@ -0,0 +1,139 @@
+package org.pancakelab.service;
+
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * One mailbox per order ID, drained by at most one worker at a time.
+ *
+ * Calls for the same order are queued and run one after another on a single worker, so they
+ * never compete for the order's lock; mailboxes of different orders drain in parallel. A worker
+ * runs up to {@value #BATCH_SIZE} calls before handing its thread back to the executor, and a
+ * mailbox is dropped as soon as it runs empty.
+ */
+class OrderMailboxes {
+    private static final int BATCH_SIZE = 64;
+
+    private final Executor executor;
+    // a mailbox is created, marked scheduled and retired only inside compute(), so no call can be
+    // stranded; the executor itself is only called outside compute()
+    private final ConcurrentHashMap<UUID, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    OrderMailboxes(Executor executor) {
+        this.executor = executor;
+    }
+
+    <T> CompletableFuture<T> submit(UUID orderId, Supplier<T> call) {
+        Call<T> task = new Call<>(call);
+        boolean[] schedule = new boolean[1];
+        Mailbox scheduled = mailboxes.compute(orderId, (id, mailbox) -> {
+            if (mailbox == null) {
+                mailbox = new Mailbox(id);
+            }
+            mailbox.tasks.add(task);
+            if (!mailbox.scheduled) {
+                mailbox.scheduled = true;
+                schedule[0] = true;
+            }
+            return mailbox;
+        });
+        if (schedule[0]) {
+            // outside compute(): a caller-runs executor drains the mailbox right here
+            scheduled.execute();
+        }
+        return task.result;
+    }
+
+    int activeMailboxes() {
+        return mailboxes.size();
+    }
+
+    private final class Mailbox implements Runnable {
+        private final UUID orderId;
+        private final Queue<Call<?>> tasks = new ConcurrentLinkedQueue<>();
+        private boolean scheduled;
+
+        private Mailbox(UUID orderId) {
+            this.orderId = orderId;
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                Call<?> task = tasks.poll();
+                if (task == null) {
+                    if (retireIfEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+                task.run();
+            }
+            // let other mailboxes use this thread, the mailbox stays scheduled
+            execute();
+        }
+
+        private void execute() {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                reject(e);
+            }
+        }
+
+        /**
+         * Retires the mailbox and fails its queued calls. Later calls for the order start a new
+         * mailbox and try the executor again.
+         */
+        private void reject(RejectedExecutionException e) {
+            mailboxes.computeIfPresent(orderId, (id, mailbox) -> {
+                if (mailbox != this) {
+                    return mailbox;
+                }
+                scheduled = false;
+                return null;
+            });
+            // nothing can be queued here any more
+            for (Call<?> task = tasks.poll(); task != null; task = tasks.poll()) {
+                task.result.completeExceptionally(e);
+            }
+        }
+
+        private boolean retireIfEmpty() {
+            boolean[] retired = new boolean[1];
+            mailboxes.computeIfPresent(orderId, (id, mailbox) -> {
+                if (mailbox != this || !tasks.isEmpty()) {
+                    return mailbox;
+                }
+                scheduled = false;
+                retired[0] = true;
+                return null;
+            });
+            return retired[0];
+        }
+    }
+
+    private static final class Call<T> implements Runnable {
+        private final Supplier<T> call;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private Call(Supplier<T> call) {
+            this.call = call;
+        }
+
+        @Override
+        public void run() {
+            try {
+                result.complete(call.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
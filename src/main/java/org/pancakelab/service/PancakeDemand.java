@@ -0,0 +1,110 @@
+package org.pancakelab.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.pancakelab.model.OrderInterface;
+import org.pancakelab.model.pancakes.Pancake;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+
+/**
+ * Running totals of the pancakes the kitchen has to cook, per recipe, over all completed orders.
+ *
+ * Register it with {@link PancakeService#addListener}. Totals are keyed by {@link PancakeRecipe},
+ * whose equality ignores ingredient order, so "dark chocolate, whipped cream" and "whipped cream,
+ * dark chocolate" are cooked together. Totals are adjusted by the pancake groups of a single order
+ * whenever it is completed, prepared, delivered or cancelled; nothing is ever recomputed from all
+ * orders, and an order's identical pancakes are counted once, not one by one.
+ */
+public class PancakeDemand implements OrderListener {
+
+	// pancakes per recipe that each counted order contributes
+	private final Map<UUID, Map<PancakeRecipe, Integer>> contributions = new ConcurrentHashMap<>();
+	private final Map<PancakeRecipe, Long> totals = new ConcurrentHashMap<>();
+	private final Map<PancakeRecipe, Set<UUID>> ordersByRecipe = new ConcurrentHashMap<>();
+
+	@Override
+	public void onCompleted(OrderInterface order) {
+		contributions.computeIfAbsent(order.getId(), id -> {
+			Map<PancakeRecipe, Integer> counts = order.getPancakeCounts();
+			counts.forEach((recipe, count) -> add(id, recipe, count));
+			return counts;
+		});
+		if (!order.isCompleted()) {
+			// cancelled or prepared while being counted
+			withdraw(order);
+		}
+	}
+
+	@Override
+	public void onPrepared(OrderInterface order) {
+		withdraw(order);
+	}
+
+	@Override
+	public void onDelivered(OrderInterface order) {
+		withdraw(order);
+	}
+
+	@Override
+	public void onCancelled(OrderInterface order) {
+		withdraw(order);
+	}
+
+	/**
+	 * @return number of pancakes with these ingredients, in any order, waiting in completed orders
+	 */
+	public long demandFor(List<String> ingredients) {
+		PancakeRecipe recipe = recipeOf(ingredients);
+		return recipe == null ? 0 : totals.getOrDefault(recipe, 0L);
+	}
+
+	/**
+	 * @return IDs of the completed orders containing pancakes with these ingredients, in any order
+	 */
+	public Set<UUID> ordersContaining(List<String> ingredients) {
+		PancakeRecipe recipe = recipeOf(ingredients);
+		Set<UUID> orders = recipe == null ? null : ordersByRecipe.get(recipe);
+		return orders == null ? Set.of() : Set.copyOf(orders);
+	}
+
+	/**
+	 * @return pancakes waiting per recipe
+	 */
+	public Map<PancakeRecipe, Long> totals() {
+		return Map.copyOf(totals);
+	}
+
+	private void withdraw(OrderInterface order) {
+		contributions.computeIfPresent(order.getId(), (id, counts) -> {
+			counts.forEach((recipe, count) -> add(id, recipe, -count));
+			return null;
+		});
+	}
+
+	private void add(UUID orderId, PancakeRecipe recipe, long count) {
+		totals.merge(recipe, count, (total, change) -> total + change == 0 ? null : total + change);
+		if (count > 0) {
+			ordersByRecipe.computeIfAbsent(recipe, key -> ConcurrentHashMap.newKeySet()).add(orderId);
+		} else {
+			ordersByRecipe.computeIfPresent(recipe, (key, orders) -> {
+				orders.remove(orderId);
+				return orders.isEmpty() ? null : orders;
+			});
+		}
+	}
+
+	/**
+	 * @return recipe to look the ingredients up by, null if no stored recipe can have them
+	 */
+	private static PancakeRecipe recipeOf(List<String> ingredients) {
+		try {
+			return new Pancake(ingredients);
+		} catch (Exception e) {
+			return null; // not on the menu
+		}
+	}
+}
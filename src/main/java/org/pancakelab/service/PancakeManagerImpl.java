@@ -1,9 +1,10 @@
 package org.pancakelab.service;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import org.pancakelab.model.CartLine;
 import org.pancakelab.model.OrderInterface;
-import org.pancakelab.model.pancakes.PancakeBuilder;
 import org.pancakelab.model.pancakes.PancakeBuilderFactory;
 import org.pancakelab.model.pancakes.PancakeRecipe;
 
@@ -24,18 +25,39 @@ public class PancakeManagerImpl implements PancakeManager {
 	@Override
     public void addPancakes(OrderInterface order, List<String> ingredients, int count) throws Exception {
         count = Math.min(count, MAX_PANCAKE_COUNT);
-        for (int i = 0; i < count && order.getPancakes().size() < MAX_PANCAKE_PER_ORDER; i++) {
-        	order.addPancake(createPancake(ingredients));
+        if (count > 0) {
+        	// the per-order cap is enforced by the order under its lock
+        	order.addPancakes(createPancake(ingredients), count, MAX_PANCAKE_PER_ORDER);
         }
     }
     
     @Override
     public void removePancakes(OrderInterface order, String description, int count) throws Exception {
-    	for (int i = 0; i < count; i++) {
-            order.removePancake(description);
+    	if (count > 0) {
+    		order.removePancakes(description, count);
     	}
     }
     
+    /**
+     * Builds every pancake of the cart first, so an invalid ingredient rejects the cart
+     * before the order is touched, then applies it to the order in one step.
+     */
+    @Override
+    public void submitCart(OrderInterface order, List<CartLine> lines, boolean complete) throws Exception {
+    	List<CartLine> resolved = new ArrayList<CartLine>(lines.size());
+    	for (CartLine line : lines) {
+    		if (line.getCount() <= 0) {
+    			continue;
+    		}
+    		if (line.isAddition()) {
+    			resolved.add(line.resolve(createPancake(line.getIngredients()), Math.min(line.getCount(), MAX_PANCAKE_COUNT)));
+    		} else {
+    			resolved.add(line);
+    		}
+    	}
+    	order.applyCart(resolved, MAX_PANCAKE_PER_ORDER, complete);
+    }
+    
     @Override
     public void cancel(OrderInterface order) throws Exception {
     	order.cancel();
@@ -57,10 +79,6 @@ public class PancakeManagerImpl implements PancakeManager {
 	}
 	
 	private PancakeRecipe createPancake(List<String> ingredients) throws Exception {
-		PancakeBuilder builder = pancakeBuilderFactory.createBuilder();
-		for (String ingredient : ingredients) {
-			builder.addIngredient(ingredient);
-		}
-		return builder.build();
+		return pancakeBuilderFactory.recipeFor(ingredients);
 	}
 }
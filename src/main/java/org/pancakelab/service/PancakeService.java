@@ -1,14 +1,23 @@
 package org.pancakelab.service;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import org.pancakelab.model.CartLine;
+import org.pancakelab.model.DeliveryManifest;
 import org.pancakelab.model.DeliveryResult;
+import org.pancakelab.model.ErrorCode;
 import org.pancakelab.model.NullOrder;
 import org.pancakelab.model.OrderInterface;
+import org.pancakelab.model.OrderStatus;
 import org.pancakelab.model.PancakeOperationResult;
 import org.pancakelab.model.ViewOrderResult;
 import org.pancakelab.model.pancakes.OrderRepository;
@@ -17,6 +26,7 @@ public class PancakeService {
 	private final OrderRepository orderRepository;
 	private final PancakeManager pancakeManager;
 	private final OrderFactory orderFactory;
+	private final List<OrderListener> listeners = new CopyOnWriteArrayList<OrderListener>();
     
     public PancakeService(OrderRepository orderRepository, PancakeManager pancakeManager, OrderFactory orderFactory) {
 		this.orderRepository = orderRepository;
@@ -27,6 +37,38 @@ public class PancakeService {
     private OrderInterface getOrder (UUID orderId) {
     	return orderRepository.findById(orderId).orElse(NullOrder.getInstance());
     }
+    
+    Optional<OrderInterface> findOrder(UUID orderId) {
+    	return orderRepository.findById(orderId);
+    }
+    
+    Collection<OrderInterface> findOrders(OrderStatus status) {
+    	return orderRepository.findByStatus(status);
+    }
+    
+    public void addListener(OrderListener listener) {
+    	listeners.add(listener);
+    }
+    
+    public void removeListener(OrderListener listener) {
+    	listeners.remove(listener);
+    }
+    
+    /**
+     * Listeners run on the calling thread after the change is saved. Operations on the same order
+     * change it, save it and notify listeners while holding the order's monitor, so every listener
+     * sees the events of one order in the order the changes happened. A listener that throws is
+     * reported and skipped; the change stays applied and the other listeners are still notified.
+     */
+    private void notifyListeners(Consumer<OrderListener> event) {
+    	for (OrderListener listener : listeners) {
+    		try {
+    			event.accept(listener);
+    		} catch (RuntimeException e) {
+    			System.err.println("Order listener " + listener + " failed: " + e);
+    		}
+    	}
+    }
 
     /**
      * Create an order 
@@ -36,11 +78,18 @@ public class PancakeService {
      */
     public PancakeOperationResult createOrder(int building, int room) {
     	if (building <= 0 || room <= 0) {
-            return new PancakeOperationResult(false, null, "Invalid building or room number.");
+            return PancakeOperationResult.failure(null, ErrorCode.INVALID_BUILDING_OR_ROOM);
         }
         OrderInterface order = orderFactory.createOrder(building, room);
-        order.updateRepository(orderRepository);
-        return new PancakeOperationResult(true, order.getId());
+        try {
+            synchronized (order) {
+                order.updateRepository(orderRepository);
+                notifyListeners(listener -> listener.onCreated(order));
+            }
+            return PancakeOperationResult.success(order.getId());
+        } catch (Exception e) {
+            return PancakeOperationResult.failure(order.getId(), e);
+        }
     }
     
     
@@ -57,23 +106,26 @@ public class PancakeService {
      */
     public PancakeOperationResult addPancakes(UUID orderId, List<String> ingredients, int count) {
         if (orderId == null) {
-            return new PancakeOperationResult(false, orderId, "Order ID cannot be null.");
+            return PancakeOperationResult.failure(orderId, ErrorCode.ORDER_ID_NULL);
         }
         if (ingredients == null || ingredients.isEmpty()) {
-        	return new PancakeOperationResult(false, orderId, "Ingredient list is null or empty.");
+        	return PancakeOperationResult.failure(orderId, ErrorCode.INGREDIENTS_EMPTY);
         }
 
         OrderInterface order = getOrder(orderId);
         if (!order.isValid()) {
-            return new PancakeOperationResult(false, orderId, "Order not found.");
+            return PancakeOperationResult.failure(orderId, ErrorCode.ORDER_NOT_FOUND);
         }
         
         try {
-	    	pancakeManager.addPancakes(order, ingredients, count);
-	    	order.updateRepository(orderRepository);
-	    	return new PancakeOperationResult(true, order.getId());
+	    	synchronized (order) {
+	    		pancakeManager.addPancakes(order, ingredients, count);
+	    		order.updateRepository(orderRepository);
+	    		notifyListeners(listener -> listener.onPancakesChanged(order));
+	    	}
+	    	return PancakeOperationResult.success(order.getId());
         } catch (Exception e) {
-        	return new PancakeOperationResult(false, order.getId(), e.getMessage());
+        	return PancakeOperationResult.failure(order.getId(), e);
         }
     }
 
@@ -91,20 +143,72 @@ public class PancakeService {
      */
     public PancakeOperationResult removePancakes(String description, UUID orderId, int count) {
         if (orderId == null) {
-            return new PancakeOperationResult(false, orderId, "Order ID cannot be null.");
+            return PancakeOperationResult.failure(orderId, ErrorCode.ORDER_ID_NULL);
         }
 
         OrderInterface order = getOrder(orderId);
         if (!order.isValid()) {
-            return new PancakeOperationResult(false, orderId, "Order not found.");
+            return PancakeOperationResult.failure(orderId, ErrorCode.ORDER_NOT_FOUND);
         }
         
         try {
-	    	pancakeManager.removePancakes(order, description, count);
-	    	order.updateRepository(orderRepository);
-	    	return new PancakeOperationResult(true, order.getId());
+	    	synchronized (order) {
+	    		pancakeManager.removePancakes(order, description, count);
+	    		order.updateRepository(orderRepository);
+	    		notifyListeners(listener -> listener.onPancakesChanged(order));
+	    	}
+	    	return PancakeOperationResult.success(order.getId());
         } catch (Exception e) {
-        	return new PancakeOperationResult(false, orderId, e.getMessage());
+        	return PancakeOperationResult.failure(orderId, e);
+        }
+    }
+    
+    /**
+     * Applies a whole cart to an order: additions and removals in the given order,
+     * optionally followed by completing the order.
+     * 
+     * The cart is all-or-nothing: if any line is invalid or the order can no longer be changed,
+     * the order is left as it was. Counts are capped as in {@link #addPancakes} and removals of
+     * pancakes the order does not contain are ignored, as in {@link #removePancakes}.
+     *
+     * @param orderId The ID of the order.
+     * @param lines The cart lines to apply.
+     * @param complete Whether to complete the order after applying the cart.
+     * @return PancakeOperationResult
+     */
+    public PancakeOperationResult submitCart(UUID orderId, List<CartLine> lines, boolean complete) {
+        if (orderId == null) {
+            return PancakeOperationResult.failure(orderId, ErrorCode.ORDER_ID_NULL);
+        }
+        if (lines == null) {
+        	return PancakeOperationResult.failure(orderId, ErrorCode.CART_LINES_NULL);
+        }
+        for (CartLine line : lines) {
+        	if (line == null) {
+        		return PancakeOperationResult.failure(orderId, ErrorCode.CART_LINES_NULL);
+        	}
+        	if (line.isAddition() && (line.getIngredients() == null || line.getIngredients().isEmpty())) {
+        		return PancakeOperationResult.failure(orderId, ErrorCode.INGREDIENTS_EMPTY);
+        	}
+        }
+
+        OrderInterface order = getOrder(orderId);
+        if (!order.isValid()) {
+            return PancakeOperationResult.failure(orderId, ErrorCode.ORDER_NOT_FOUND);
+        }
+        
+        try {
+        	synchronized (order) {
+        		pancakeManager.submitCart(order, lines, complete);
+        		order.updateRepository(orderRepository);
+        		notifyListeners(listener -> listener.onPancakesChanged(order));
+        		if (complete) {
+        			notifyListeners(listener -> listener.onCompleted(order));
+        		}
+        	}
+        	return PancakeOperationResult.success(order.getId());
+        } catch (Exception e) {
+        	return PancakeOperationResult.failure(orderId, e);
         }
     }
     
@@ -116,12 +220,12 @@ public class PancakeService {
      */
 	public ViewOrderResult viewOrder(UUID orderId) {
         if (orderId == null) {
-            return new ViewOrderResult(false, orderId, List.of(), "Order ID cannot be null.");
+            return ViewOrderResult.failure(orderId, ErrorCode.ORDER_ID_NULL);
         }
 
         OrderInterface order = getOrder(orderId);
         if (!order.isValid()) {
-            return new ViewOrderResult(false, orderId, List.of(), "Order not found.");
+            return ViewOrderResult.failure(orderId, ErrorCode.ORDER_NOT_FOUND);
         }
 		return new ViewOrderResult(true, orderId, order.getPancakes(), "");
 	}
@@ -142,20 +246,23 @@ public class PancakeService {
      */
     public PancakeOperationResult cancelOrder(UUID orderId) {
         if (orderId == null) {
-            return new PancakeOperationResult(false, orderId, "Order ID cannot be null.");
+            return PancakeOperationResult.failure(orderId, ErrorCode.ORDER_ID_NULL);
         }
 
         OrderInterface order = getOrder(orderId);
         if (!order.isValid()) {
-            return new PancakeOperationResult(false, orderId, "Order not found.");
+            return PancakeOperationResult.failure(orderId, ErrorCode.ORDER_NOT_FOUND);
         }
         
         try {
-        	pancakeManager.cancel(order);
-            order.updateRepository(orderRepository);
-            return new PancakeOperationResult(true, order.getId());
+        	synchronized (order) {
+        		pancakeManager.cancel(order);
+        		order.updateRepository(orderRepository);
+        		notifyListeners(listener -> listener.onCancelled(order));
+        	}
+            return PancakeOperationResult.success(order.getId());
         } catch (Exception e) {
-        	return new PancakeOperationResult(false, orderId, e.getMessage()); 
+        	return PancakeOperationResult.failure(orderId, e); 
         }
         
     }
@@ -168,20 +275,23 @@ public class PancakeService {
      */
     public PancakeOperationResult completeOrder(UUID orderId) {
         if (orderId == null) {
-            return new PancakeOperationResult(false, orderId, "Order ID cannot be null.");
+            return PancakeOperationResult.failure(orderId, ErrorCode.ORDER_ID_NULL);
         }
 
         OrderInterface order = getOrder(orderId);
         if (!order.isValid()) {
-            return new PancakeOperationResult(false, orderId, "Order not found.");
+            return PancakeOperationResult.failure(orderId, ErrorCode.ORDER_NOT_FOUND);
         }
         
         try {
-        	pancakeManager.complete(order);
-        	order.updateRepository(orderRepository);
-        	return new PancakeOperationResult(true, order.getId());
+        	synchronized (order) {
+        		pancakeManager.complete(order);
+        		order.updateRepository(orderRepository);
+        		notifyListeners(listener -> listener.onCompleted(order));
+        	}
+        	return PancakeOperationResult.success(order.getId());
         } catch (Exception e) {
-        	return new PancakeOperationResult(false, orderId, e.getMessage());  
+        	return PancakeOperationResult.failure(orderId, e);  
         }
 
     }
@@ -192,8 +302,7 @@ public class PancakeService {
      * @return A set containing IDs of completed orders.
      */
     public Set<UUID> listCompletedOrders() {
-    	return orderRepository.findAll().stream()
-    			.filter(order -> order.isCompleted())
+    	return orderRepository.findByStatus(OrderStatus.COMPLETED).stream()
     			.map(order -> order.getId())
     			.collect(Collectors.toSet());
         
@@ -207,31 +316,47 @@ public class PancakeService {
      */
     public PancakeOperationResult prepareOrder(UUID orderId) {
         if (orderId == null) {
-            return new PancakeOperationResult(false, orderId, "Order ID cannot be null.");
+            return PancakeOperationResult.failure(orderId, ErrorCode.ORDER_ID_NULL);
         }
 
         OrderInterface order = getOrder(orderId);
         if (!order.isValid()) {
-            return new PancakeOperationResult(false, orderId, "Order not found.");
+            return PancakeOperationResult.failure(orderId, ErrorCode.ORDER_NOT_FOUND);
         }
         
         try {
-        	pancakeManager.prepare(order);
-        	order.updateRepository(orderRepository);
-        	return new PancakeOperationResult(true, order.getId());
+        	synchronized (order) {
+        		pancakeManager.prepare(order);
+        		order.updateRepository(orderRepository);
+        		notifyListeners(listener -> listener.onPrepared(order));
+        	}
+        	return PancakeOperationResult.success(order.getId());
         } catch (Exception e) {
-        	return new PancakeOperationResult(false, orderId, e.getMessage());
+        	return PancakeOperationResult.failure(orderId, e);
         }
     }
 
+    /**
+     * Marks several orders as prepared, e.g. all orders served by one griddle run.
+     *
+     * @param orderIds The IDs of the orders to prepare.
+     * @return one PancakeOperationResult per order, in the order of {@code orderIds}
+     */
+    public List<PancakeOperationResult> prepareOrders(Collection<UUID> orderIds) {
+    	List<PancakeOperationResult> results = new ArrayList<PancakeOperationResult>(orderIds.size());
+    	for (UUID orderId : orderIds) {
+    		results.add(prepareOrder(orderId));
+    	}
+    	return results;
+    }
+
     /**
      * Returns a set of prepared orders.
      *
      * @return A set containing IDs of prepared orders.
      */
 	public Set<UUID> listPreparedOrders() {
-		return orderRepository.findAll().stream()
-				.filter(order -> order.isPrepared())
+		return orderRepository.findByStatus(OrderStatus.PREPARED).stream()
 				.map(order -> order.getId())
 				.collect(Collectors.toSet());
 
@@ -245,21 +370,105 @@ public class PancakeService {
      */
     public DeliveryResult deliverOrder(UUID orderId) {
         if (orderId == null) {
-            return new DeliveryResult(false, orderId, "Order ID cannot be null.");
+            return DeliveryResult.failure(orderId, ErrorCode.ORDER_ID_NULL);
         }
 
         OrderInterface order = getOrder(orderId);
         if (!order.isValid()) {
-            return new DeliveryResult(false, orderId, "Order not found.");
+            return DeliveryResult.failure(orderId, ErrorCode.ORDER_NOT_FOUND);
         }
         
         try {
-	    	pancakeManager.deliver(order);
-	    	order.updateRepository(orderRepository);
+	    	synchronized (order) {
+	    		pancakeManager.deliver(order);
+	    		order.updateRepository(orderRepository);
+	    		notifyListeners(listener -> listener.onDelivered(order));
+	    	}
 	
 	        return new DeliveryResult(order.isDelivered(), order.getId(),  order.getPancakesToDeliver(), "");
         } catch (Exception e) {
-        	return new DeliveryResult(false, order.getId(), new LinkedList<String>(), e.getMessage());
+        	return DeliveryResult.failure(order.getId(), e);
+        }
+    }
+
+    /**
+     * Delivers every prepared order of a building in one pass, e.g. one courier trolley.
+     *
+     * @param building The building to deliver to.
+     * @return DeliveryManifest with one stop per room, sorted by room
+     */
+    public DeliveryManifest deliverBuilding(int building) {
+        if (building <= 0) {
+            return DeliveryManifest.failure(ErrorCode.INVALID_BUILDING);
+        }
+        return deliverAll(orderRepository.findByBuildingAndStatus(building, OrderStatus.PREPARED), List.of());
+    }
+
+    /**
+     * Delivers several orders in one pass and removes them from the system together.
+     * Orders that cannot be delivered are reported in the manifest's failures.
+     *
+     * @param orderIds The IDs of the orders to deliver.
+     * @return DeliveryManifest with one stop per room, sorted by building and room
+     */
+    public DeliveryManifest deliverOrders(Collection<UUID> orderIds) {
+        if (orderIds == null) {
+            return DeliveryManifest.failure(ErrorCode.ORDER_IDS_NULL);
+        }
+        List<OrderInterface> orders = new ArrayList<OrderInterface>(orderIds.size());
+        List<DeliveryResult> failures = new ArrayList<DeliveryResult>();
+        for (UUID orderId : orderIds) {
+            if (orderId == null) {
+                failures.add(DeliveryResult.failure(orderId, ErrorCode.ORDER_ID_NULL));
+                continue;
+            }
+            OrderInterface order = getOrder(orderId);
+            if (!order.isValid()) {
+                failures.add(DeliveryResult.failure(orderId, ErrorCode.ORDER_NOT_FOUND));
+            } else {
+                orders.add(order);
+            }
+        }
+        return deliverAll(orders, failures);
+    }
+
+    private DeliveryManifest deliverAll(Collection<OrderInterface> orders, List<DeliveryResult> earlierFailures) {
+        List<OrderInterface> delivered = new ArrayList<OrderInterface>(orders.size());
+        List<DeliveryResult> failures = new ArrayList<DeliveryResult>(earlierFailures);
+        for (OrderInterface order : orders) {
+            try {
+                synchronized (order) {
+                    pancakeManager.deliver(order);
+                }
+                delivered.add(order);
+            } catch (Exception e) {
+                failures.add(DeliveryResult.failure(order.getId(), e));
+            }
+        }
+        orderRepository.deleteAll(delivered.stream().map(OrderInterface::getId).toList());
+        for (OrderInterface order : delivered) {
+            synchronized (order) {
+                // a cancel that slipped in since the delivery has already reported the final state
+                if (order.isDelivered()) {
+                    notifyListeners(listener -> listener.onDelivered(order));
+                }
+            }
+        }
+
+        delivered.sort(Comparator.comparingInt(OrderInterface::getBuilding).thenComparingInt(OrderInterface::getRoom));
+        List<DeliveryManifest.Stop> stops = new ArrayList<DeliveryManifest.Stop>();
+        int i = 0;
+        while (i < delivered.size()) {
+            OrderInterface first = delivered.get(i);
+            List<UUID> orderIds = new ArrayList<UUID>();
+            List<String> pancakes = new ArrayList<String>();
+            for (; i < delivered.size() && delivered.get(i).getBuilding() == first.getBuilding()
+                    && delivered.get(i).getRoom() == first.getRoom(); i++) {
+                orderIds.add(delivered.get(i).getId());
+                pancakes.addAll(delivered.get(i).getPancakesToDeliver());
+            }
+            stops.add(new DeliveryManifest.Stop(first.getBuilding(), first.getRoom(), List.copyOf(orderIds), List.copyOf(pancakes)));
         }
+        return new DeliveryManifest(stops, failures);
     }
 }
@@ -0,0 +1,55 @@
+package org.pancakelab.service;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates UUID version 7 style ids without locks or {@code SecureRandom}.
+ *
+ * <pre>
+ * msb : unix millis(48) version(4) counter high(12)
+ * lsb : variant(2) counter low(18) thread node(44)
+ * </pre>
+ *
+ * Every thread keeps its own counter and a random node value, so ids are unique across threads
+ * and strictly increasing within a thread, even when the clock stands still or moves back.
+ * Ids of different threads are ordered by their millisecond.
+ */
+public class TimeOrderedIdGenerator implements OrderIdGenerator {
+	private static final int COUNTER_LOW_BITS = 18;
+	private static final long COUNTER_LIMIT = 1L << 30;
+	private static final long NODE_MASK = (1L << 44) - 1;
+
+	private final ThreadLocal<ThreadState> state = ThreadLocal.withInitial(ThreadState::new);
+
+	private static final class ThreadState {
+		private final long node = ThreadLocalRandom.current().nextLong() & NODE_MASK;
+		private long millis;
+		private long counter;
+	}
+
+	@Override
+	public UUID nextId() {
+		ThreadState thread = state.get();
+		long now = System.currentTimeMillis();
+		if (now > thread.millis) {
+			thread.millis = now;
+			thread.counter = 0;
+		} else if (++thread.counter == COUNTER_LIMIT) {
+			// counter exhausted within one millisecond: borrow the next one
+			thread.millis++;
+			thread.counter = 0;
+		}
+		long counter = thread.counter;
+		long msb = (thread.millis << 16) | 0x7000L | (counter >>> COUNTER_LOW_BITS);
+		long lsb = 0x8000000000000000L | ((counter & ((1L << COUNTER_LOW_BITS) - 1)) << 44) | thread.node;
+		return new UUID(msb, lsb);
+	}
+
+	/**
+	 * @return creation time of a time-ordered id in unix milliseconds
+	 */
+	public static long timestampOf(UUID id) {
+		return id.getMostSignificantBits() >>> 16;
+	}
+}
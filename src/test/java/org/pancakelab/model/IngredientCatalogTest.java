@@ -0,0 +1,105 @@
+package org.pancakelab.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class IngredientCatalogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void publish_ShouldKeepOrdinalsStableAndWithdrawnNamesKnown_WhenMenuChanges() {
+        IngredientCatalog catalog = new IngredientCatalog(List.of("dark chocolate", "hazelnuts"));
+        IngredientCatalog.Snapshot first = catalog.snapshot();
+
+        IngredientCatalog.Snapshot second = catalog.publish(List.of("Hazelnuts", "maple syrup"));
+
+        assertEquals(first.version() + 1, second.version());
+        assertEquals(Set.of("hazelnuts", "maple syrup"), second.approvedNames());
+        assertEquals(first.ordinalOf("hazelnuts"), second.ordinalOf("HAZELNUTS"));
+        assertEquals(-1, second.ordinalOf("dark chocolate"));
+        assertEquals("dark chocolate", second.nameOf(second.knownOrdinalOf("dark chocolate")));
+        assertEquals(2, second.ordinalOf("maple syrup"));
+        assertTrue(first.isApproved("dark chocolate"), "Published snapshots never change");
+        assertSame(second, catalog.publish(List.of("maple syrup", "hazelnuts")));
+    }
+
+    @Test
+    void restoredOrdinalOf_ShouldKnowButNotApproveIngredient_WhenItIsOffTheMenu() {
+        IngredientCatalog catalog = new IngredientCatalog(List.of("hazelnuts"));
+
+        int ordinal = catalog.restoredOrdinalOf("Dark Chocolate");
+
+        assertEquals(1, ordinal);
+        assertEquals("dark chocolate", catalog.snapshot().nameOf(ordinal));
+        assertFalse(catalog.snapshot().isApproved("dark chocolate"));
+        assertEquals(0, catalog.restoredOrdinalOf("hazelnuts"));
+    }
+
+    @Test
+    void watch_ShouldReloadMenu_WhenFileChanges() throws Exception {
+        Path menu = dir.resolve("menu.txt");
+        Files.writeString(menu, "# winter\ndark chocolate\nhazelnuts\n");
+        try (IngredientCatalog catalog = new IngredientCatalog(List.of())) {
+            catalog.watch(menu);
+            assertEquals(Set.of("dark chocolate", "hazelnuts"), catalog.snapshot().approvedNames());
+
+            Files.writeString(menu, "# summer\nhazelnuts\nstrawberries # fresh\n");
+
+            long deadline = System.nanoTime() + 20_000_000_000L;
+            while (!catalog.snapshot().isApproved("strawberries") && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(Set.of("hazelnuts", "strawberries"), catalog.snapshot().approvedNames());
+        }
+    }
+
+    @Test
+    void watch_ShouldKeepMenuAndKeepWatching_WhenFileIsEmptyOrTooLarge() throws Exception {
+        Path menu = dir.resolve("menu.txt");
+        Files.writeString(menu, "hazelnuts\n");
+        try (IngredientCatalog catalog = new IngredientCatalog(List.of())) {
+            catalog.watch(menu);
+
+            Files.writeString(menu, "");
+            Thread.sleep(4 * IngredientCatalog.SETTLE_MILLIS);
+            StringBuilder tooMany = new StringBuilder();
+            for (int i = 0; i <= IngredientCatalog.MAX_INGREDIENTS; i++) {
+                tooMany.append("topping ").append(i).append('\n');
+            }
+            Files.writeString(menu, tooMany);
+            Thread.sleep(4 * IngredientCatalog.SETTLE_MILLIS);
+            assertEquals(Set.of("hazelnuts"), catalog.snapshot().approvedNames());
+
+            Files.writeString(menu, "hazelnuts\nstrawberries\n");
+            long deadline = System.nanoTime() + 20_000_000_000L;
+            while (!catalog.snapshot().isApproved("strawberries") && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(Set.of("hazelnuts", "strawberries"), catalog.snapshot().approvedNames());
+        }
+    }
+
+    @Test
+    void watch_ShouldFailAndStayUnwatched_WhenFirstLoadFails() throws Exception {
+        Path menu = dir.resolve("menu.txt");
+        Files.writeString(menu, "# nothing yet\n");
+        try (IngredientCatalog catalog = new IngredientCatalog(List.of("hazelnuts"))) {
+            assertThrows(IOException.class, () -> catalog.watch(menu));
+            assertEquals(Set.of("hazelnuts"), catalog.snapshot().approvedNames());
+
+            Files.writeString(menu, "strawberries\n");
+            catalog.watch(menu);
+            assertEquals(Set.of("strawberries"), catalog.snapshot().approvedNames());
+        }
+    }
+}
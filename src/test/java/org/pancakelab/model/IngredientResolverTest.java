@@ -0,0 +1,33 @@
+package org.pancakelab.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class IngredientResolverTest {
+
+    private final IngredientResolver resolver = new IngredientResolver(List.of("dark chocolate", "milk chocolate", "hazelnuts"));
+
+    @Test
+    void resolve_ShouldReturnOrdinal_WhenNameIsInAnyCase() {
+        assertEquals(0, resolver.resolve("dark chocolate"));
+        assertEquals(1, resolver.resolve("Milk Chocolate"));
+        assertEquals(2, resolver.resolve("HAZELNUTS"));
+        assertEquals("milk chocolate", resolver.nameOf(resolver.resolve("MILK chocolate")));
+    }
+
+    @Test
+    void resolve_ShouldReturnMinusOne_WhenNameIsUnknownOrNull() {
+        assertEquals(-1, resolver.resolve("sugar"));
+        assertEquals(-1, resolver.resolve("hazelnut"));
+        assertEquals(-1, resolver.resolve(""));
+        assertEquals(-1, resolver.resolve(null));
+    }
+
+    @Test
+    void constructor_ShouldThrowException_WhenNamesAreDuplicated() {
+        assertThrows(IllegalArgumentException.class, () -> new IngredientResolver(List.of("hazelnuts", "Hazelnuts")));
+    }
+}
@@ -10,6 +10,7 @@ import org.pancakelab.model.pancakes.PancakeRecipe;
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
 class OrderConcurrentTest {
@@ -172,6 +173,60 @@ class OrderConcurrentTest {
         assertTrue(order.isCompleted());
     }
     
+    @Test
+    void testConcurrentAddAndComplete_NoPancakeAddedAfterCompletion() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        PancakeRecipe pancake = createPancake(SAMPLE_INGREDIENTS);
+        AtomicInteger added = new AtomicInteger();
+
+        Runnable addTask = () -> {
+            for (int i = 0; i < 1000; i++) {
+                try {
+                    added.addAndGet(order.addPancakes(pancake, 1));
+                } catch (Exception e) {
+                    return; // order was completed
+                }
+            }
+        };
+
+        IntStream.range(0, THREAD_COUNT - 1).forEach(i -> executor.submit(addTask));
+        executor.submit(() -> {
+            try {
+                order.complete();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        });
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertTrue(order.isCompleted());
+        assertEquals(added.get(), order.getPancakeCount(), "Every successful add must be counted and none may follow completion");
+    }
+
+    @Test
+    void testConcurrentCappedAddPancakes() throws Exception {
+        PancakeRecipe recipe = createPancake(SAMPLE_INGREDIENTS);
+        order.addPancakes(recipe, 450);
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger added = new AtomicInteger();
+
+        IntStream.range(0, THREAD_COUNT).forEach(i -> executor.submit(() -> {
+            start.await();
+            added.addAndGet(order.addPancakes(recipe, 100, 500));
+            return null;
+        }));
+        start.countDown();
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(50, added.get(), "Only the pancakes below the cap should be reported as added");
+        assertEquals(500, order.getPancakeCount(), "Concurrent additions must not exceed the cap");
+    }
+
     private String pancakeDescrption(List<String> ingredients) {
    	 return "Delicious pancake with %s!".formatted(String.join(", ", ingredients));
    }
@@ -13,6 +13,7 @@ import org.pancakelab.model.pancakes.PancakeRecipe;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.List;
+import java.util.Map;
 
 public class OrderTest {
 	
@@ -227,6 +228,31 @@ public class OrderTest {
         assertTrue(recipes.contains(pancakeDescrption(darkChocolateRecepie)), "Original pancake should still be in the list");
     }
 
+    @Test
+    void testAddAndRemovePancakesInBulk() throws Exception {
+        assertEquals(500, order.addPancakes(createPancake(darkChocolateRecepie), 500));
+        order.addPancake(createPancake(milkChocolateRecepie));
+        
+        assertEquals(499, order.removePancakes(pancakeDescrption(darkChocolateRecepie), 499));
+        assertEquals(1, order.removePancakes(pancakeDescrption(darkChocolateRecepie), 10), "Only the remaining pancake can be removed");
+        assertEquals(0, order.removePancakes(pancakeDescrption(darkChocolateRecepie), 1));
+        
+        assertEquals(List.of(pancakeDescrption(milkChocolateRecepie)), order.getPancakes());
+        assertEquals(1, order.getPancakeCount());
+    }
+    
+    @Test
+    void testGetPancakes_KeepsOrderOfFirstAddition() throws Exception {
+        order.addPancakes(createPancake(darkChocolateRecepie), 2);
+        order.addPancake(createPancake(milkChocolateRecepie));
+        order.addPancake(createPancake(darkChocolateRecepie));
+        
+        assertEquals(List.of(pancakeDescrption(darkChocolateRecepie),
+                             pancakeDescrption(darkChocolateRecepie),
+                             pancakeDescrption(darkChocolateRecepie),
+                             pancakeDescrption(milkChocolateRecepie)), order.getPancakes());
+    }
+
     @Test
     void testGetPancakeRecipes_ModificationDoesNotAffectOriginalList() throws Exception {
         order.addPancake(createPancake(darkChocolateRecepie));
@@ -308,6 +334,34 @@ public class OrderTest {
         assertEquals(exception3.getMessage(), "Order is not in the state in which removing pancakes is possible");
     }
 
+    @Test
+    void testGetPancakes_UnchangedOrderReturnsSameView() throws Exception {
+        order.addPancake(createPancake(darkChocolateRecepie));
+        List<String> first = order.getPancakes();
+
+        assertSame(first, order.getPancakes(), "Unchanged order should return the cached view");
+
+        order.addPancake(createPancake(milkChocolateRecepie));
+        List<String> second = order.getPancakes();
+        assertNotSame(first, second, "Changing the pancakes should publish a new view");
+        assertEquals(1, first.size(), "Earlier views must not change");
+        assertEquals(2, second.size());
+
+        order.removePancake(pancakeDescrption(darkChocolateRecepie));
+        assertEquals(List.of(pancakeDescrption(milkChocolateRecepie)), order.getPancakes());
+    }
+
+    @Test
+    void testGetPancakeCounts_MergesRecipesThatDifferOnlyInIngredientOrder() throws Exception {
+        List<String> darkWhipped = List.of(ApprovedIngredients.INGREDIENT_DARK_CHOCOLATE, ApprovedIngredients.INGREDIENT_WHIPPED_CREAM);
+        List<String> whippedDark = List.of(ApprovedIngredients.INGREDIENT_WHIPPED_CREAM, ApprovedIngredients.INGREDIENT_DARK_CHOCOLATE);
+        order.addPancakes(createPancake(darkWhipped), 3);
+        order.addPancakes(createPancake(whippedDark), 2);
+        order.addPancakes(createPancake(milkChocolateRecepie), 1);
+
+        assertEquals(Map.of(new Pancake(darkWhipped), 5, new Pancake(milkChocolateRecepie), 1), order.getPancakeCounts());
+    }
+
     private String pancakeDescrption(List<String> ingredients) {
     	return "Delicious pancake with %s!".formatted(String.join(", ", ingredients));
     }
@@ -0,0 +1,51 @@
+package org.pancakelab.model.pancakes;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.ApprovedIngredients;
+
+class CachingPancakeBuilderFactoryTest {
+
+    private static final List<String> RECIPE = List.of(ApprovedIngredients.INGREDIENT_DARK_CHOCOLATE,
+            ApprovedIngredients.INGREDIENT_HAZELNUTS);
+
+    @Test
+    void recipeFor_ShouldBuildOnce_WhenRecipeIsRepeated() throws Exception {
+        CachingPancakeBuilderFactory factory = new CachingPancakeBuilderFactory(new PancakeBuilderFactoryImpl());
+
+        PancakeRecipe first = factory.recipeFor(RECIPE);
+        PancakeRecipe second = factory.recipeFor(new ArrayList<>(RECIPE));
+
+        assertSame(first, second);
+        assertEquals(RECIPE, first.getIngredients());
+        assertEquals(1, factory.missCount());
+        assertEquals(1, factory.hitCount());
+    }
+
+    @Test
+    void recipeFor_ShouldCacheNothing_WhenIngredientIsInvalid() {
+        CachingPancakeBuilderFactory factory = new CachingPancakeBuilderFactory(new PancakeBuilderFactoryImpl());
+
+        assertThrows(Exception.class, () -> factory.recipeFor(List.of("mustard")));
+        assertThrows(Exception.class, () -> factory.recipeFor(List.of("mustard")));
+        assertEquals(0, factory.size());
+        assertEquals(2, factory.missCount());
+    }
+
+    @Test
+    void recipeFor_ShouldStayBounded_WhenRecipesExceedCapacity() throws Exception {
+        CachingPancakeBuilderFactory factory = new CachingPancakeBuilderFactory(new PancakeBuilderFactoryImpl(), 16);
+        List<String> ingredients = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            ingredients.add(ApprovedIngredients.INGREDIENT_WHIPPED_CREAM);
+            factory.recipeFor(ingredients);
+        }
+
+        assertTrue(factory.size() <= 16);
+        assertEquals(40, factory.missCount());
+    }
+}
@@ -0,0 +1,83 @@
+package org.pancakelab.model.pancakes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.Order;
+import org.pancakelab.model.OrderStatus;
+
+class InMemoryOrderRepositoryTest {
+
+	private InMemoryOrderRepository orderRepository;
+
+	@BeforeEach
+	void setUp() {
+		orderRepository = new InMemoryOrderRepository();
+	}
+
+	@Test
+	void findByStatus_ShouldFollowStatus_WhenSavedOrderChanges() throws Exception {
+		Order order = new Order(1, 101);
+		order.updateRepository(orderRepository);
+		assertTrue(orderRepository.findByStatus(OrderStatus.INITIATED).contains(order));
+
+		order.complete();
+		order.updateRepository(orderRepository);
+		assertFalse(orderRepository.findByStatus(OrderStatus.INITIATED).contains(order));
+		assertTrue(orderRepository.findByStatus(OrderStatus.COMPLETED).contains(order));
+
+		order.prepare();
+		order.updateRepository(orderRepository);
+		assertFalse(orderRepository.findByStatus(OrderStatus.COMPLETED).contains(order));
+		assertTrue(orderRepository.findByStatus(OrderStatus.PREPARED).contains(order));
+	}
+
+	@Test
+	void delete_ShouldRemoveOrderFromIndex_WhenOrderIsSaved() throws Exception {
+		Order order = new Order(1, 101);
+		order.complete();
+		order.updateRepository(orderRepository);
+
+		order.cancel();
+		order.updateRepository(orderRepository);
+
+		assertTrue(orderRepository.findById(order.getId()).isEmpty());
+		for (OrderStatus status : OrderStatus.values()) {
+			assertFalse(orderRepository.findByStatus(status).contains(order));
+		}
+	}
+
+	@Test
+	void testConcurrentStatusIndexUpdates() throws Exception {
+		int orderCount = 200;
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+
+		IntStream.range(0, orderCount).forEach(i -> executor.submit(() -> {
+			Order order = new Order(1, 101);
+			order.updateRepository(orderRepository);
+			if (i % 2 == 0) {
+				try {
+					order.complete();
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+				order.updateRepository(orderRepository);
+			}
+		}));
+
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+		assertEquals(orderCount / 2, orderRepository.findByStatus(OrderStatus.INITIATED).size());
+		assertEquals(orderCount / 2, orderRepository.findByStatus(OrderStatus.COMPLETED).size());
+		assertEquals(orderCount, orderRepository.findAll().size());
+	}
+}
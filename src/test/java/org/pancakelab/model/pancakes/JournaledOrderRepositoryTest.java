@@ -0,0 +1,226 @@
+package org.pancakelab.model.pancakes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pancakelab.model.ApprovedIngredients;
+import org.pancakelab.model.Order;
+import org.pancakelab.model.OrderInterface;
+import org.pancakelab.model.OrderStatus;
+
+class JournaledOrderRepositoryTest {
+
+	@TempDir
+	Path journalDirectory;
+
+	@Test
+	void constructor_ShouldReplayState_WhenOrdersWereSaved() throws Exception {
+		UUID keptId;
+		UUID cancelledId;
+		try (JournaledOrderRepository repository = new JournaledOrderRepository(journalDirectory)) {
+			Order kept = new Order(3, 14);
+			kept.addPancake(new Pancake(List.of(ApprovedIngredients.INGREDIENT_DARK_CHOCOLATE)));
+			kept.addPancake(new Pancake(List.of(ApprovedIngredients.INGREDIENT_DARK_CHOCOLATE)));
+			kept.addPancake(new Pancake(List.of(ApprovedIngredients.INGREDIENT_MILK_CHOCOLATE, ApprovedIngredients.INGREDIENT_HAZELNUTS)));
+			kept.updateRepository(repository);
+			kept.complete();
+			kept.updateRepository(repository);
+			keptId = kept.getId();
+
+			Order cancelled = new Order(3, 15);
+			cancelled.updateRepository(repository);
+			cancelled.cancel();
+			cancelled.updateRepository(repository);
+			cancelledId = cancelled.getId();
+		}
+
+		try (JournaledOrderRepository repository = new JournaledOrderRepository(journalDirectory)) {
+			OrderInterface restored = repository.findById(keptId).orElseThrow();
+			assertEquals(3, restored.getBuilding());
+			assertEquals(14, restored.getRoom());
+			assertEquals(OrderStatus.COMPLETED, restored.getStatus());
+			assertEquals(List.of("Delicious pancake with dark chocolate!",
+								 "Delicious pancake with dark chocolate!",
+								 "Delicious pancake with milk chocolate, hazelnuts!"), restored.getPancakes());
+			assertTrue(repository.findByStatus(OrderStatus.COMPLETED).contains(restored));
+			assertTrue(repository.findById(cancelledId).isEmpty());
+		}
+	}
+
+	@Test
+	void testConcurrentSavesAreReplayed() throws Exception {
+		int orderCount = 500;
+		try (JournaledOrderRepository repository = new JournaledOrderRepository(journalDirectory, 4 * 1024, Duration.ZERO)) {
+			ExecutorService executor = Executors.newFixedThreadPool(16);
+			IntStream.range(0, orderCount).forEach(i -> executor.submit(() -> new Order(1, i + 1).updateRepository(repository)));
+			executor.shutdown();
+			assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		}
+
+		try (Stream<Path> segments = Files.list(journalDirectory)) {
+			assertTrue(segments.count() > 1, "Small segment size should roll the journal");
+		}
+		try (JournaledOrderRepository repository = new JournaledOrderRepository(journalDirectory, 4 * 1024, Duration.ZERO)) {
+			assertEquals(orderCount, repository.findAll().size());
+			assertEquals(orderCount, repository.findByStatus(OrderStatus.INITIATED).size());
+		}
+	}
+
+	@Test
+	void constructor_ShouldKeepIntactRecords_WhenJournalTailIsTorn() throws Exception {
+		UUID orderId;
+		try (JournaledOrderRepository repository = new JournaledOrderRepository(journalDirectory)) {
+			Order order = new Order(2, 7);
+			order.updateRepository(repository);
+			orderId = order.getId();
+		}
+		appendGarbage(lastSegment());
+
+		try (JournaledOrderRepository repository = new JournaledOrderRepository(journalDirectory)) {
+			assertTrue(repository.findById(orderId).isPresent());
+			new Order(2, 8).updateRepository(repository);
+		}
+		try (JournaledOrderRepository repository = new JournaledOrderRepository(journalDirectory)) {
+			assertEquals(2, repository.findAll().size());
+		}
+	}
+
+	@Test
+	void constructor_ShouldCombineSnapshotAndJournalTail_WhenSnapshotExists() throws Exception {
+		UUID snapshottedId;
+		UUID tailId;
+		try (JournaledOrderRepository repository = new JournaledOrderRepository(journalDirectory, 4 * 1024, Duration.ZERO)) {
+			for (int i = 0; i < 200; i++) {
+				new Order(1, i + 1).updateRepository(repository);
+			}
+			Order snapshotted = new Order(5, 50);
+			snapshotted.addPancake(new Pancake(List.of(ApprovedIngredients.INGREDIENT_WHIPPED_CREAM)));
+			snapshotted.updateRepository(repository);
+			snapshottedId = snapshotted.getId();
+
+			repository.snapshot();
+
+			snapshotted.complete();
+			snapshotted.updateRepository(repository);
+			Order tail = new Order(6, 60);
+			tail.updateRepository(repository);
+			tailId = tail.getId();
+		}
+
+		try (Stream<Path> files = Files.list(journalDirectory)) {
+			assertEquals(1, files.filter(path -> path.toString().endsWith(".snap")).count());
+		}
+		try (Stream<Path> files = Files.list(journalDirectory)) {
+			assertTrue(files.filter(path -> path.toString().endsWith(".log")).count() <= 2,
+					"Segments covered by the snapshot should be deleted");
+		}
+
+		try (JournaledOrderRepository repository = new JournaledOrderRepository(journalDirectory, 4 * 1024, Duration.ZERO)) {
+			assertEquals(202, repository.findAll().size());
+			OrderInterface snapshotted = repository.findById(snapshottedId).orElseThrow();
+			assertEquals(OrderStatus.COMPLETED, snapshotted.getStatus());
+			assertEquals(List.of("Delicious pancake with whipped cream!"), snapshotted.getPancakes());
+			assertTrue(repository.findById(tailId).isPresent());
+		}
+	}
+
+	@Test
+	void snapshot_ShouldLeaveOutFinishedOrders_WhenTheirDeleteIsNotJournaledYet() throws Exception {
+		UUID cancelledId;
+		try (JournaledOrderRepository repository = new JournaledOrderRepository(journalDirectory)) {
+			Order cancelled = new Order(4, 40);
+			cancelled.updateRepository(repository);
+			cancelledId = cancelled.getId();
+			new Order(4, 41).updateRepository(repository);
+
+			cancelled.cancel();
+			repository.snapshot();
+		}
+
+		try (JournaledOrderRepository repository = new JournaledOrderRepository(journalDirectory)) {
+			assertTrue(repository.findById(cancelledId).isEmpty());
+			assertEquals(0, repository.findByStatus(OrderStatus.CANCELLED).size());
+			assertEquals(1, repository.findAll().size());
+		}
+	}
+
+	@Test
+	void snapshot_ShouldLoseNothing_WhenWritersKeepSaving() throws Exception {
+		int orderCount = 300;
+		try (JournaledOrderRepository repository = new JournaledOrderRepository(journalDirectory, 4 * 1024, Duration.ofMillis(5))) {
+			ExecutorService executor = Executors.newFixedThreadPool(8);
+			IntStream.range(0, orderCount).forEach(i -> executor.submit(() -> new Order(1, i + 1).updateRepository(repository)));
+			executor.shutdown();
+			assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		}
+
+		try (JournaledOrderRepository repository = new JournaledOrderRepository(journalDirectory)) {
+			assertEquals(orderCount, repository.findAll().size());
+		}
+	}
+
+	@Test
+	void deleteAll_ShouldRemoveOrdersDurably_WhenReopened() throws Exception {
+		List<UUID> deleted;
+		UUID keptId;
+		try (JournaledOrderRepository repository = new JournaledOrderRepository(journalDirectory)) {
+			List<Order> orders = IntStream.range(0, 20).mapToObj(i -> new Order(1, i + 1)).toList();
+			orders.forEach(order -> order.updateRepository(repository));
+			deleted = orders.subList(0, 19).stream().map(Order::getId).toList();
+			keptId = orders.get(19).getId();
+			repository.deleteAll(deleted);
+			assertEquals(1, repository.findAll().size());
+		}
+
+		try (JournaledOrderRepository repository = new JournaledOrderRepository(journalDirectory)) {
+			assertEquals(1, repository.findAll().size());
+			assertTrue(repository.findById(keptId).isPresent());
+		}
+	}
+
+	@Test
+	void save_ShouldLeaveRepositoryUnchanged_WhenJournalWriteFails() throws Exception {
+		JournaledOrderRepository repository = new JournaledOrderRepository(journalDirectory);
+		Order kept = new Order(1, 1);
+		kept.updateRepository(repository);
+		repository.close();
+
+		Order unsaved = new Order(1, 2);
+		assertThrows(IllegalStateException.class, () -> repository.save(unsaved));
+		assertThrows(IllegalStateException.class, () -> repository.delete(kept.getId()));
+
+		assertTrue(repository.findById(unsaved.getId()).isEmpty());
+		assertTrue(repository.findByStatus(OrderStatus.INITIATED).contains(kept));
+		assertEquals(1, repository.findAll().size());
+	}
+
+	private Path lastSegment() throws IOException {
+		try (Stream<Path> segments = Files.list(journalDirectory)) {
+			return segments.filter(path -> path.toString().endsWith(".log"))
+					.filter(path -> path.toFile().length() > 0)
+					.sorted()
+					.reduce((first, second) -> second)
+					.orElseThrow();
+		}
+	}
+
+	private void appendGarbage(Path segment) throws IOException {
+		Files.write(segment, new byte[] { 0, 0, 0, 42, 1, 2, 3 }, StandardOpenOption.APPEND);
+	}
+}
@@ -0,0 +1,160 @@
+package org.pancakelab.model.pancakes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OrderJournalTest {
+
+	@TempDir
+	Path journalDirectory;
+
+	@Test
+	void append_ShouldFailForGood_WhenAWriteFails() throws Exception {
+		List<FailingChannel> channels = new ArrayList<>();
+		try (OrderJournal journal = new OrderJournal(journalDirectory, OrderJournal.DEFAULT_SEGMENT_SIZE, 0, (lsn, payload) -> {}, path -> {
+			FailingChannel channel = new FailingChannel(
+					FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+			channels.add(channel);
+			return channel;
+		})) {
+			assertEquals(1, journal.append(new byte[] { 1 }).join());
+
+			channels.get(0).failNextWrite = true;
+			CompletionException torn = assertThrows(CompletionException.class, () -> journal.append(new byte[] { 2, 2, 2, 2 }).join());
+			assertInstanceOf(IOException.class, torn.getCause());
+
+			CompletionException rejected = assertThrows(CompletionException.class, () -> journal.append(new byte[] { 3 }).join());
+			assertInstanceOf(IOException.class, rejected.getCause(), "Records after a torn frame would be lost on replay");
+			assertEquals(1, journal.durableLsn());
+		}
+
+		List<Long> replayed = new ArrayList<>();
+		try (OrderJournal journal = new OrderJournal(journalDirectory, OrderJournal.DEFAULT_SEGMENT_SIZE, 0, (lsn, payload) -> replayed.add(lsn))) {
+			assertEquals(List.of(1L), replayed);
+			assertEquals(2, journal.append(new byte[] { 4 }).join());
+		}
+	}
+
+	/**
+	 * Writes only part of the buffer and then fails, once, when asked to.
+	 */
+	private static final class FailingChannel extends FileChannel {
+		private final FileChannel delegate;
+		volatile boolean failNextWrite;
+
+		FailingChannel(FileChannel delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public int write(ByteBuffer src) throws IOException {
+			if (failNextWrite) {
+				failNextWrite = false;
+				ByteBuffer half = src.duplicate();
+				half.limit(src.position() + src.remaining() / 2);
+				delegate.write(half);
+				throw new IOException("disk full");
+			}
+			return delegate.write(src);
+		}
+
+		@Override
+		public int read(ByteBuffer dst) throws IOException {
+			return delegate.read(dst);
+		}
+
+		@Override
+		public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+			return delegate.read(dsts, offset, length);
+		}
+
+		@Override
+		public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+			return delegate.write(srcs, offset, length);
+		}
+
+		@Override
+		public long position() throws IOException {
+			return delegate.position();
+		}
+
+		@Override
+		public FileChannel position(long newPosition) throws IOException {
+			delegate.position(newPosition);
+			return this;
+		}
+
+		@Override
+		public long size() throws IOException {
+			return delegate.size();
+		}
+
+		@Override
+		public FileChannel truncate(long size) throws IOException {
+			delegate.truncate(size);
+			return this;
+		}
+
+		@Override
+		public void force(boolean metaData) throws IOException {
+			delegate.force(metaData);
+		}
+
+		@Override
+		public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+			return delegate.transferTo(position, count, target);
+		}
+
+		@Override
+		public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+			return delegate.transferFrom(src, position, count);
+		}
+
+		@Override
+		public int read(ByteBuffer dst, long position) throws IOException {
+			return delegate.read(dst, position);
+		}
+
+		@Override
+		public int write(ByteBuffer src, long position) throws IOException {
+			return delegate.write(src, position);
+		}
+
+		@Override
+		public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+			return delegate.map(mode, position, size);
+		}
+
+		@Override
+		public FileLock lock(long position, long size, boolean shared) throws IOException {
+			return delegate.lock(position, size, shared);
+		}
+
+		@Override
+		public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+			return delegate.tryLock(position, size, shared);
+		}
+
+		@Override
+		protected void implCloseChannel() throws IOException {
+			delegate.close();
+		}
+	}
+}
@@ -8,6 +8,7 @@ import org.pancakelab.model.ApprovedIngredients;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -95,4 +96,47 @@ class PancakeTest {
         assertThrows(UnsupportedOperationException.class, () -> ingredients.add("Eggs"), 
             "Returned list should be immutable");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testBuilder_IdenticalRecipesShareOneInstance() throws Exception {
+        PancakeRecipe first = new PancakeBuilderImpl()
+                .addIngredient(ApprovedIngredients.INGREDIENT_DARK_CHOCOLATE)
+                .addIngredient(ApprovedIngredients.INGREDIENT_WHIPPED_CREAM)
+                .build();
+        PancakeRecipe second = new PancakeBuilderImpl()
+                .addIngredient("Dark Chocolate")
+                .addIngredient("WHIPPED CREAM")
+                .build();
+
+        assertSame(first, second, "Identical recipes should resolve to the same instance");
+        assertSame(first.description(), second.description(), "Description should be computed once");
+        assertEquals("Delicious pancake with dark chocolate, whipped cream!", first.description());
+    }
+
+    @Test
+    void testBuilder_InternedRecipeCannotBeChanged() throws Exception {
+        Pancake interned = (Pancake) new PancakeBuilderImpl().addIngredient(ApprovedIngredients.INGREDIENT_HAZELNUTS).build();
+        assertThrows(UnsupportedOperationException.class, () -> interned.addIngredient(ApprovedIngredients.INGREDIENT_MILK_CHOCOLATE));
+        assertEquals(List.of(ApprovedIngredients.INGREDIENT_HAZELNUTS), interned.getIngredients());
+    }
+
+    @Test
+    void testBuilder_RejectsNonApprovedIngredient() {
+        assertThrows(Exception.class, () -> new PancakeBuilderImpl().addIngredient("mustard").build());
+    }
+
+    @Test
+    void testEquals_InternedAndBuiltRecipesCompareByCanonicalForm() throws Exception {
+        PancakeRecipe interned = new PancakeBuilderImpl()
+                .addIngredient(ApprovedIngredients.INGREDIENT_WHIPPED_CREAM)
+                .addIngredient(ApprovedIngredients.INGREDIENT_DARK_CHOCOLATE)
+                .build();
+        Pancake doubled = new Pancake(List.of(ApprovedIngredients.INGREDIENT_DARK_CHOCOLATE,
+                ApprovedIngredients.INGREDIENT_DARK_CHOCOLATE, ApprovedIngredients.INGREDIENT_WHIPPED_CREAM));
+
+        assertEquals(pancake1, interned);
+        assertEquals(pancake1.hashCode(), interned.hashCode());
+        assertNotEquals(pancake1, doubled, "Repeated ingredients should count");
+        assertEquals(Set.of(pancake1, pancake2), new HashSet<>(List.of(pancake1, pancake3, interned, pancake2)));
+    }
+}
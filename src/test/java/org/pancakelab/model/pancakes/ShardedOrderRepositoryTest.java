@@ -0,0 +1,111 @@
+package org.pancakelab.model.pancakes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.Order;
+import org.pancakelab.model.OrderInterface;
+import org.pancakelab.model.OrderStatus;
+
+class ShardedOrderRepositoryTest {
+
+	private ShardedOrderRepository orderRepository;
+
+	@BeforeEach
+	void setUp() {
+		orderRepository = new ShardedOrderRepository(4);
+	}
+
+	@Test
+	void findByBuilding_ShouldReturnOnlyThatBuilding_WhenOrdersSpanSeveralBuildings() throws Exception {
+		Order first = new Order(1, 101);
+		Order sameShard = new Order(5, 501);
+		Order other = new Order(2, 201);
+		first.updateRepository(orderRepository);
+		sameShard.updateRepository(orderRepository);
+		other.updateRepository(orderRepository);
+
+		first.complete();
+		first.updateRepository(orderRepository);
+
+		assertEquals(1, orderRepository.findByBuilding(1).size());
+		assertTrue(orderRepository.findByBuilding(1).contains(first));
+		assertTrue(orderRepository.findByBuildingAndStatus(1, OrderStatus.COMPLETED).contains(first));
+		assertTrue(orderRepository.findByBuildingAndStatus(5, OrderStatus.COMPLETED).isEmpty());
+		assertTrue(orderRepository.findByBuilding(3).isEmpty());
+		assertEquals(3, orderRepository.findAll().size());
+		assertEquals(2, orderRepository.findByStatus(OrderStatus.INITIATED).size());
+	}
+
+	@Test
+	void delete_ShouldRemoveOrderFromAllIndexes_WhenOrderIsSaved() throws Exception {
+		Order order = new Order(7, 701);
+		order.updateRepository(orderRepository);
+
+		order.cancel();
+		order.updateRepository(orderRepository);
+
+		assertTrue(orderRepository.findById(order.getId()).isEmpty());
+		assertFalse(orderRepository.findByBuilding(7).contains(order));
+		for (OrderStatus status : OrderStatus.values()) {
+			assertFalse(orderRepository.findByStatus(status).contains(order));
+			assertFalse(orderRepository.findByBuildingAndStatus(7, status).contains(order));
+		}
+	}
+
+	@Test
+	void testConcurrentSavesAcrossBuildings() throws Exception {
+		int orderCount = 600;
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+
+		IntStream.range(0, orderCount).forEach(i -> executor.submit(() -> {
+			Order order = new Order(1 + i % 60, 1 + i);
+			order.updateRepository(orderRepository);
+			if (i % 3 == 0) {
+				try {
+					order.complete();
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+				order.updateRepository(orderRepository);
+			}
+		}));
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+		assertEquals(orderCount, orderRepository.findAll().size());
+		assertEquals(orderCount, orderRepository.parallelStream().count());
+		assertEquals(orderCount / 3, orderRepository.parallelStream(OrderStatus.COMPLETED).count());
+		for (int building = 1; building <= 60; building++) {
+			assertEquals(10, orderRepository.findByBuilding(building).size());
+		}
+	}
+
+	@Test
+	void findAll_ShouldReturnLiveUnmodifiableViews_WhenOrdersChange() throws Exception {
+		Collection<OrderInterface> all = orderRepository.findAll();
+		Collection<OrderInterface> completed = orderRepository.findByStatus(OrderStatus.COMPLETED);
+		Order order = new Order(3, 301);
+		order.updateRepository(orderRepository);
+		order.complete();
+		order.updateRepository(orderRepository);
+
+		assertSame(all, orderRepository.findAll());
+		assertEquals(List.of(order), List.copyOf(all));
+		assertTrue(completed.contains(order));
+		assertThrows(UnsupportedOperationException.class, () -> all.remove(order));
+		assertThrows(UnsupportedOperationException.class, () -> completed.clear());
+	}
+}
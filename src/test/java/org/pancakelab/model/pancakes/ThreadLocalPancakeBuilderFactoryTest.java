@@ -0,0 +1,38 @@
+package org.pancakelab.model.pancakes;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.ApprovedIngredients;
+
+class ThreadLocalPancakeBuilderFactoryTest {
+
+    private final ThreadLocalPancakeBuilderFactory factory = new ThreadLocalPancakeBuilderFactory();
+
+    @Test
+    void createBuilder_ShouldReuseResetBuilder_WhenCalledOnSameThread() throws Exception {
+        PancakeBuilder first = factory.createBuilder().addIngredient(ApprovedIngredients.INGREDIENT_HAZELNUTS);
+        PancakeRecipe hazelnuts = first.build();
+        PancakeBuilder second = factory.createBuilder();
+
+        assertSame(first, second);
+        PancakeRecipe chocolate = second.addIngredient(ApprovedIngredients.INGREDIENT_DARK_CHOCOLATE).build();
+        assertEquals(List.of(ApprovedIngredients.INGREDIENT_HAZELNUTS), hazelnuts.getIngredients());
+        assertEquals(List.of(ApprovedIngredients.INGREDIENT_DARK_CHOCOLATE), chocolate.getIngredients());
+    }
+
+    @Test
+    void build_ShouldReturnSameInstance_WhenRecipeIsAlreadyInterned() throws Exception {
+        List<String> ingredients = List.of(ApprovedIngredients.INGREDIENT_MILK_CHOCOLATE,
+                ApprovedIngredients.INGREDIENT_WHIPPED_CREAM, ApprovedIngredients.INGREDIENT_MILK_CHOCOLATE);
+
+        PancakeRecipe first = factory.recipeFor(ingredients);
+        PancakeRecipe second = factory.recipeFor(ingredients);
+
+        assertSame(first, second);
+        assertSame(first, new PancakeBuilderFactoryImpl().recipeFor(ingredients));
+        assertEquals(ingredients, second.getIngredients());
+    }
+}
@@ -0,0 +1,83 @@
+package org.pancakelab.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.PancakeOperationResult;
+import org.pancakelab.model.pancakes.InMemoryOrderRepository;
+import org.pancakelab.model.pancakes.PancakeBuilderFactoryImpl;
+
+class AsyncPancakeServiceTest {
+
+    private static final List<String> INGREDIENTS = List.of("dark chocolate");
+
+    private AsyncPancakeService asyncService;
+
+    @BeforeEach
+    void setUp() {
+        PancakeService pancakeService = new PancakeService(new InMemoryOrderRepository(),
+                new PancakeManagerImpl(new PancakeBuilderFactoryImpl()), new OrderFactoryImp());
+        asyncService = new AsyncPancakeService(pancakeService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        asyncService.close();
+    }
+
+    @Test
+    void addPancakes_ShouldRunInCallOrder_WhenSubmittedWithoutWaiting() throws Exception {
+        UUID orderId = asyncService.createOrder(1, 1).get(5, TimeUnit.SECONDS).getOrderId();
+
+        List<CompletableFuture<PancakeOperationResult>> additions = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            additions.add(asyncService.addPancakes(orderId, INGREDIENTS, 1));
+        }
+        CompletableFuture<PancakeOperationResult> completion = asyncService.completeOrder(orderId);
+        CompletableFuture<PancakeOperationResult> lateAddition = asyncService.addPancakes(orderId, INGREDIENTS, 1);
+
+        for (CompletableFuture<PancakeOperationResult> addition : additions) {
+            assertTrue(addition.get(5, TimeUnit.SECONDS).isSuccess());
+        }
+        assertTrue(completion.get(5, TimeUnit.SECONDS).isSuccess());
+        assertFalse(lateAddition.get(5, TimeUnit.SECONDS).isSuccess());
+        assertEquals(200, asyncService.viewOrder(orderId).get(5, TimeUnit.SECONDS).getPancakes().size());
+        assertTrue(asyncService.listCompletedOrders().get(5, TimeUnit.SECONDS).contains(orderId));
+    }
+
+    @Test
+    void testConcurrentUpdatesOfManyOrders() throws Exception {
+        List<UUID> orderIds = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            orderIds.add(asyncService.createOrder(1, i + 1).get(5, TimeUnit.SECONDS).getOrderId());
+        }
+
+        List<CompletableFuture<PancakeOperationResult>> calls = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            for (UUID orderId : orderIds) {
+                calls.add(asyncService.addPancakes(orderId, INGREDIENTS, 2));
+            }
+        }
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        for (UUID orderId : orderIds) {
+            assertEquals(20, asyncService.viewOrder(orderId).get(5, TimeUnit.SECONDS).getPancakes().size());
+        }
+    }
+
+    @Test
+    void addPancakes_ShouldReturnFailure_WhenOrderIdIsNull() throws Exception {
+        PancakeOperationResult result = asyncService.completeOrder(null).get(5, TimeUnit.SECONDS);
+
+        assertFalse(result.isSuccess());
+        assertEquals("Order ID cannot be null.", result.getMessage());
+    }
+}
@@ -0,0 +1,119 @@
+package org.pancakelab.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.pancakes.InMemoryOrderRepository;
+import org.pancakelab.model.pancakes.PancakeBuilderFactoryImpl;
+
+class KitchenSchedulerTest {
+
+    private static final List<String> INGREDIENTS = List.of("dark chocolate");
+
+    private PancakeService pancakeService;
+
+    @BeforeEach
+    void setUp() {
+        pancakeService = new PancakeService(new InMemoryOrderRepository(),
+                new PancakeManagerImpl(new PancakeBuilderFactoryImpl()), new OrderFactoryImp());
+    }
+
+    @Test
+    void takeNextOrder_ShouldReturnSmallestOrderFirst_WhenPriorityIsOrderSize() throws Exception {
+        KitchenScheduler scheduler = new KitchenScheduler(KitchenScheduler.Priority.ORDER_SIZE);
+        pancakeService.addListener(scheduler);
+
+        UUID large = completedOrder(1, 5);
+        UUID small = completedOrder(2, 1);
+        UUID medium = completedOrder(3, 3);
+
+        assertEquals(small, scheduler.takeNextOrder());
+        assertEquals(medium, scheduler.takeNextOrder());
+        assertEquals(large, scheduler.takeNextOrder());
+    }
+
+    @Test
+    void takeNextOrder_ShouldSkipOrder_WhenOrderIsCancelled() throws Exception {
+        KitchenScheduler scheduler = new KitchenScheduler();
+        pancakeService.addListener(scheduler);
+
+        UUID cancelled = completedOrder(1, 1);
+        UUID kept = completedOrder(1, 1);
+        pancakeService.cancelOrder(cancelled);
+
+        assertEquals(Optional.of(kept), scheduler.takeNextOrder(1, TimeUnit.SECONDS));
+        assertEquals(Optional.empty(), scheduler.takeNextOrder(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void takeNextOrder_ShouldReturnImmediately_WhenOrderIsCompletedForWaitingChef() throws Exception {
+        KitchenScheduler scheduler = new KitchenScheduler();
+        pancakeService.addListener(scheduler);
+
+        CompletableFuture<Optional<UUID>> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return scheduler.takeNextOrder(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        UUID orderId = completedOrder(4, 2);
+
+        assertEquals(Optional.of(orderId), waiting.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testConcurrentChefsPrepareAllOrders() throws Exception {
+        try (KitchenScheduler scheduler = new KitchenScheduler(KitchenScheduler.Priority.BUILDING)) {
+            pancakeService.addListener(scheduler);
+            scheduler.startChefs(4, pancakeService::prepareOrder);
+
+            for (int i = 0; i < 100; i++) {
+                completedOrder(1 + i % 10, 1);
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (pancakeService.listPreparedOrders().size() < 100 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(100, pancakeService.listPreparedOrders().size());
+            assertTrue(pancakeService.listCompletedOrders().isEmpty());
+        }
+    }
+
+    @Test
+    void startChefs_ShouldKeepChefWorking_WhenPreparingAnOrderFails() throws Exception {
+        try (KitchenScheduler scheduler = new KitchenScheduler()) {
+            pancakeService.addListener(scheduler);
+            UUID failing = completedOrder(1, 1);
+            UUID next = completedOrder(1, 2);
+            scheduler.startChefs(1, orderId -> {
+                if (orderId.equals(failing)) {
+                    throw new IllegalStateException("burnt");
+                }
+                pancakeService.prepareOrder(orderId);
+            });
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!pancakeService.listPreparedOrders().contains(next) && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(Set.of(next), pancakeService.listPreparedOrders());
+        }
+    }
+
+    private UUID completedOrder(int building, int pancakes) {
+        UUID orderId = pancakeService.createOrder(building, 1).getOrderId();
+        pancakeService.addPancakes(orderId, INGREDIENTS, pancakes);
+        pancakeService.completeOrder(orderId);
+        return orderId;
+    }
+}
@@ -0,0 +1,143 @@
+package org.pancakelab.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.OrderStatus;
+import org.pancakelab.model.pancakes.InMemoryOrderRepository;
+import org.pancakelab.model.pancakes.PancakeBuilderFactoryImpl;
+
+class OrderEventBusTest {
+
+    private PancakeService pancakeService;
+    private OrderEventBus eventBus;
+
+    @BeforeEach
+    void setUp() {
+        pancakeService = new PancakeService(new InMemoryOrderRepository(),
+                new PancakeManagerImpl(new PancakeBuilderFactoryImpl()), new OrderFactoryImp());
+        eventBus = new OrderEventBus(16, Runnable::run);
+        pancakeService.addListener(eventBus);
+    }
+
+    @Test
+    void subscribe_ShouldDeliverOnlyMatchingEventsOnDemand_WhenFilterIsGiven() throws Exception {
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        eventBus.subscribe(subscriber, OrderEventBus.withStatus(OrderStatus.COMPLETED).and(OrderEventBus.inBuilding(2)), 1);
+
+        UUID first = completedOrder(2);
+        completedOrder(3);
+        UUID second = completedOrder(2);
+
+        assertNull(subscriber.events.poll(), "Nothing is delivered before it is requested");
+        subscriber.subscription.join().request(1);
+        assertEquals(first, subscriber.events.poll(1, TimeUnit.SECONDS).orderId());
+        assertNull(subscriber.events.poll());
+
+        subscriber.subscription.join().request(10);
+        OrderEvent event = subscriber.events.poll(1, TimeUnit.SECONDS);
+        assertEquals(second, event.orderId());
+        assertEquals(OrderEvent.Type.COMPLETED, event.type());
+        assertNull(subscriber.events.poll());
+    }
+
+    @Test
+    void subscribe_ShouldReplayEarlierEvents_WhenSequenceIsGiven() throws Exception {
+        UUID orderId = pancakeService.createOrder(1, 1).getOrderId();
+        long afterCreate = eventBus.latestSequence();
+        pancakeService.addPancakes(orderId, List.of("hazelnuts"), 1);
+        pancakeService.completeOrder(orderId);
+
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        eventBus.subscribe(subscriber, event -> true, afterCreate + 1);
+
+        assertEquals(OrderEvent.Type.PANCAKES_CHANGED, subscriber.events.poll(1, TimeUnit.SECONDS).type());
+        assertEquals(OrderEvent.Type.COMPLETED, subscriber.events.poll(1, TimeUnit.SECONDS).type());
+
+        pancakeService.prepareOrder(orderId);
+        OrderEvent prepared = subscriber.events.poll(1, TimeUnit.SECONDS);
+        assertEquals(OrderEvent.Type.PREPARED, prepared.type());
+        assertEquals(afterCreate + 3, prepared.sequence());
+    }
+
+    @Test
+    void subscribe_ShouldReportMissedEvents_WhenSequenceIsOutsideHistory() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            pancakeService.createOrder(1, i + 1);
+        }
+
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        eventBus.subscribe(subscriber, event -> true, 1);
+
+        assertInstanceOf(IllegalStateException.class, subscriber.error.get(1, TimeUnit.SECONDS));
+        assertNull(subscriber.events.poll());
+    }
+
+    @Test
+    void subscribe_ShouldCancelAndReportError_WhenSubscriberThrows() throws Exception {
+        RecordingSubscriber failing = new RecordingSubscriber(Long.MAX_VALUE) {
+            @Override
+            public void onNext(OrderEvent item) {
+                throw new IllegalStateException("display is gone");
+            }
+        };
+        RecordingSubscriber healthy = new RecordingSubscriber(Long.MAX_VALUE);
+        eventBus.subscribe(failing);
+        eventBus.subscribe(healthy);
+
+        pancakeService.createOrder(1, 1);
+        pancakeService.createOrder(1, 2);
+
+        assertEquals("display is gone", failing.error.get(1, TimeUnit.SECONDS).getMessage());
+        assertEquals(2, healthy.events.size());
+        assertEquals(1, eventBus.subscriberCount(), "A failed subscription is dropped");
+    }
+
+    private UUID completedOrder(int building) {
+        UUID orderId = pancakeService.createOrder(building, 1).getOrderId();
+        pancakeService.completeOrder(orderId);
+        return orderId;
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<OrderEvent> {
+        private final long initialDemand;
+        private final BlockingQueue<OrderEvent> events = new LinkedBlockingQueue<>();
+        private final CompletableFuture<Flow.Subscription> subscription = new CompletableFuture<>();
+        private final CompletableFuture<Throwable> error = new CompletableFuture<>();
+
+        RecordingSubscriber(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription.complete(subscription);
+            if (initialDemand > 0) {
+                subscription.request(initialDemand);
+            }
+        }
+
+        @Override
+        public void onNext(OrderEvent item) {
+            events.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error.complete(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.pancakelab.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.OrderInterface;
+import org.pancakelab.model.OrderStatus;
+import org.pancakelab.model.pancakes.InMemoryOrderRepository;
+import org.pancakelab.model.pancakes.PancakeBuilderFactoryImpl;
+
+class OrderExpiryTest {
+
+    private final ManualClock clock = new ManualClock();
+    private final InMemoryOrderRepository orderRepository = new InMemoryOrderRepository();
+    private PancakeService pancakeService;
+    private OrderExpiry expiry;
+
+    @BeforeEach
+    void setUp() {
+        pancakeService = new PancakeService(orderRepository,
+                new PancakeManagerImpl(new PancakeBuilderFactoryImpl()), new OrderFactoryImp());
+        expiry = new OrderExpiry(pancakeService,
+                Map.of(OrderStatus.INITIATED, Duration.ofMinutes(30), OrderStatus.COMPLETED, Duration.ofHours(2)),
+                Duration.ofSeconds(1), 64, clock);
+        pancakeService.addListener(expiry);
+    }
+
+    @Test
+    void sweep_ShouldCancelAndEvictOrder_WhenCartIsIdle() {
+        UUID abandoned = pancakeService.createOrder(1, 1).getOrderId();
+
+        clock.advance(Duration.ofMinutes(29));
+        expiry.sweep();
+        assertTrue(pancakeService.viewOrder(abandoned).isSuccess());
+
+        clock.advance(Duration.ofMinutes(2));
+        expiry.sweep();
+        assertEquals("Order not found.", pancakeService.viewOrder(abandoned).getMessage());
+        assertEquals(0, expiry.trackedOrders());
+    }
+
+    @Test
+    void onPancakesChanged_ShouldMoveDeadline_WhenCartChanges() {
+        UUID active = pancakeService.createOrder(1, 1).getOrderId();
+
+        clock.advance(Duration.ofMinutes(20));
+        pancakeService.addPancakes(active, List.of("hazelnuts"), 1);
+        clock.advance(Duration.ofMinutes(20));
+        expiry.sweep();
+
+        assertTrue(pancakeService.viewOrder(active).isSuccess(), "Activity restarts the idle timeout");
+    }
+
+    @Test
+    void sweep_ShouldUseTimeoutOfStatus_WhenStatusesHaveDifferentTimeouts() {
+        UUID completed = pancakeService.createOrder(1, 1).getOrderId();
+        pancakeService.completeOrder(completed);
+        UUID prepared = pancakeService.createOrder(1, 2).getOrderId();
+        pancakeService.completeOrder(prepared);
+        pancakeService.prepareOrder(prepared);
+
+        clock.advance(Duration.ofMinutes(90));
+        expiry.sweep();
+        assertTrue(pancakeService.listCompletedOrders().contains(completed));
+
+        clock.advance(Duration.ofMinutes(31));
+        expiry.sweep();
+        assertFalse(pancakeService.listCompletedOrders().contains(completed));
+        assertTrue(pancakeService.listPreparedOrders().contains(prepared), "PREPARED has no timeout");
+        assertEquals(0, expiry.trackedOrders());
+    }
+
+    @Test
+    void start_ShouldTrackExistingOrders_WhenOrdersWereStoredBefore() {
+        PancakeService withoutListener = new PancakeService(orderRepository,
+                new PancakeManagerImpl(new PancakeBuilderFactoryImpl()), new OrderFactoryImp());
+        UUID restored = withoutListener.createOrder(1, 1).getOrderId();
+        assertEquals(0, expiry.trackedOrders());
+
+        expiry.start();
+        expiry.close();
+        assertEquals(1, expiry.trackedOrders());
+
+        clock.advance(Duration.ofMinutes(31));
+        expiry.sweep();
+        assertEquals("Order not found.", pancakeService.viewOrder(restored).getMessage());
+    }
+
+    @Test
+    void onPancakesChanged_ShouldIgnoreEvent_WhenOrderIsNoLongerStored() {
+        UUID evicted = pancakeService.createOrder(1, 1).getOrderId();
+        OrderInterface order = orderRepository.findById(evicted).orElseThrow();
+        orderRepository.delete(evicted);
+
+        expiry.onPancakesChanged(order);
+
+        assertEquals(0, expiry.trackedOrders());
+    }
+
+    @Test
+    void sweep_ShouldKeepOrder_WhenOrderIsTouchedWhileSweeping() throws Exception {
+        UUID active = pancakeService.createOrder(1, 1).getOrderId();
+        OrderInterface order = pancakeService.findOrder(active).orElseThrow();
+        clock.advance(Duration.ofMinutes(31));
+
+        Thread sweeper = new Thread(expiry::sweep);
+        synchronized (order) {
+            sweeper.start();
+            while (sweeper.getState() != Thread.State.BLOCKED) {
+                Thread.sleep(1);
+            }
+            pancakeService.addPancakes(active, List.of("hazelnuts"), 1);
+        }
+        sweeper.join(5000);
+
+        assertTrue(pancakeService.viewOrder(active).isSuccess(), "Activity during the sweep restarts the idle timeout");
+        assertEquals(1, expiry.trackedOrders());
+    }
+
+    private static class ManualClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.pancakelab.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pancakelab.model.Order;
+
+class OrderLogTest {
+
+    @TempDir
+    Path logDirectory;
+
+    @Test
+    void flush_ShouldRenderEventsInOrder_WhenEventsAreLogged() throws Exception {
+        Order order = new Order(3, 14);
+        try (OrderLog log = new OrderLog(logDirectory, 16, OrderLog.OverflowPolicy.BLOCK, 1024 * 1024, 2)) {
+            log.addPancakes(order, "Delicious pancake with dark chocolate!", 2, 2);
+            log.removePancakes(order, "Delicious pancake with dark chocolate!", 1, 1);
+            log.deliverOrder(order, 1);
+            log.flush();
+
+            List<String> lines = Files.readAllLines(logDirectory.resolve(OrderLog.LOG_FILE));
+            assertEquals(List.of(
+                    "Added 2 pancake(s) with description 'Delicious pancake with dark chocolate!' to order " + order.getId()
+                            + " containing 2 pancakes, for building 3, room 14.",
+                    "Removed 1 pancake(s) with description 'Delicious pancake with dark chocolate!' from order " + order.getId()
+                            + " now containing 1 pancakes, for building 3, room 14.",
+                    "Order " + order.getId() + " with 1 pancakes for building 3, room 14 out for delivery."), lines);
+        }
+    }
+
+    @Test
+    void testConcurrentLoggingLosesNoEvent() throws Exception {
+        int threads = 8;
+        int eventsPerThread = 2_000;
+        Order order = new Order(1, 1);
+        try (OrderLog log = new OrderLog(logDirectory, 8, OrderLog.OverflowPolicy.BLOCK, Long.MAX_VALUE, 0)) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            IntStream.range(0, threads).forEach(i -> executor.submit(() -> {
+                for (int j = 0; j < eventsPerThread; j++) {
+                    log.cancelOrder(order, j);
+                }
+            }));
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            log.flush();
+
+            assertEquals(0, log.droppedEvents());
+            assertEquals(threads * eventsPerThread, Files.readAllLines(logDirectory.resolve(OrderLog.LOG_FILE)).size());
+        }
+    }
+
+    @Test
+    void cancelOrder_ShouldRollAndBoundFiles_WhenFileSizeIsExceeded() throws Exception {
+        Order order = new Order(1, 1);
+        try (OrderLog log = new OrderLog(logDirectory, 64, OrderLog.OverflowPolicy.BLOCK, 512, 2)) {
+            for (int i = 0; i < 100; i++) {
+                log.cancelOrder(order, i);
+            }
+            log.flush();
+        }
+
+        assertTrue(Files.exists(logDirectory.resolve(OrderLog.LOG_FILE + ".1")));
+        assertTrue(Files.exists(logDirectory.resolve(OrderLog.LOG_FILE + ".2")));
+        assertFalse(Files.exists(logDirectory.resolve(OrderLog.LOG_FILE + ".3")));
+        assertTrue(Files.size(logDirectory.resolve(OrderLog.LOG_FILE)) <= 512);
+    }
+}
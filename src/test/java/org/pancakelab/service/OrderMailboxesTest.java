@@ -0,0 +1,144 @@
+package org.pancakelab.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class OrderMailboxesTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final OrderMailboxes mailboxes = new OrderMailboxes(executor);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void submit_ShouldRunCallsOneAtATimeInOrder_WhenSameOrder() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        AtomicInteger running = new AtomicInteger();
+        List<Integer> executed = new ArrayList<>();
+
+        List<CompletableFuture<Integer>> calls = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            int call = i;
+            calls.add(mailboxes.submit(orderId, () -> {
+                assertEquals(1, running.incrementAndGet(), "Calls of one order must not overlap");
+                executed.add(call);
+                running.decrementAndGet();
+                return call;
+            }));
+        }
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        for (int i = 0; i < calls.size(); i++) {
+            assertEquals(i, calls.get(i).get());
+            assertEquals(i, executed.get(i));
+        }
+    }
+
+    @Test
+    void submit_ShouldRunInParallel_WhenOrdersDiffer() throws Exception {
+        CyclicBarrier bothRunning = new CyclicBarrier(2);
+
+        CompletableFuture<Integer> first = mailboxes.submit(UUID.randomUUID(), () -> await(bothRunning));
+        CompletableFuture<Integer> second = mailboxes.submit(UUID.randomUUID(), () -> await(bothRunning));
+
+        assertEquals(0, first.get(5, TimeUnit.SECONDS) * second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void submit_ShouldDropMailbox_WhenItIsDrained() throws Exception {
+        List<CompletableFuture<Integer>> calls = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            calls.add(mailboxes.submit(UUID.randomUUID(), () -> 1));
+        }
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (mailboxes.activeMailboxes() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(0, mailboxes.activeMailboxes());
+    }
+
+    @Test
+    void submit_ShouldStillRunLaterCalls_WhenCallFails() throws Exception {
+        UUID orderId = UUID.randomUUID();
+
+        CompletableFuture<Integer> failing = mailboxes.submit(orderId, () -> {
+            throw new IllegalStateException("boom");
+        });
+        CompletableFuture<Integer> next = mailboxes.submit(orderId, () -> 42);
+
+        assertEquals(42, next.get(5, TimeUnit.SECONDS));
+        assertTrue(failing.isCompletedExceptionally());
+    }
+
+    @Test
+    void submit_ShouldRunCallInline_WhenExecutorRunsCallerTasks() throws Exception {
+        OrderMailboxes direct = new OrderMailboxes(Runnable::run);
+        UUID orderId = UUID.randomUUID();
+
+        CompletableFuture<Integer> outer = direct.submit(orderId, () -> direct.submit(orderId, () -> 2).isDone() ? 0 : 1);
+
+        assertEquals(1, outer.get(), "A call queued by a running call runs after it");
+        assertEquals(42, direct.submit(orderId, () -> 42).get());
+        assertEquals(0, direct.activeMailboxes());
+    }
+
+    @Test
+    void submit_ShouldFailQueuedCalls_WhenExecutorRejects() throws Exception {
+        List<Runnable> accepted = new ArrayList<>();
+        AtomicBoolean rejecting = new AtomicBoolean();
+        OrderMailboxes rejected = new OrderMailboxes(runnable -> {
+            if (rejecting.get()) {
+                throw new RejectedExecutionException("shut down");
+            }
+            accepted.add(runnable);
+        });
+        UUID orderId = UUID.randomUUID();
+        List<CompletableFuture<Integer>> calls = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int call = i;
+            calls.add(rejected.submit(orderId, () -> call));
+        }
+
+        rejecting.set(true);
+        accepted.get(0).run();
+
+        assertEquals(1, accepted.size());
+        assertEquals(63, calls.get(63).get());
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> calls.get(64).get());
+        assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+        assertTrue(calls.get(99).isCompletedExceptionally());
+        assertEquals(0, rejected.activeMailboxes());
+
+        CompletableFuture<Integer> later = rejected.submit(orderId, () -> 1);
+        assertTrue(later.isCompletedExceptionally(), "A rejected submit fails its future instead of throwing");
+        assertEquals(0, rejected.activeMailboxes());
+    }
+
+    private static int await(CyclicBarrier barrier) {
+        try {
+            return barrier.await(5, TimeUnit.SECONDS) >= 0 ? 0 : 1;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.pancakelab.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.pancakes.InMemoryOrderRepository;
+import org.pancakelab.model.pancakes.Pancake;
+import org.pancakelab.model.pancakes.PancakeBuilderFactoryImpl;
+
+class PancakeDemandTest {
+
+    private static final List<String> DARK_WHIPPED = List.of("dark chocolate", "whipped cream");
+    private static final List<String> WHIPPED_DARK = List.of("whipped cream", "dark chocolate");
+    private static final List<String> HAZELNUTS = List.of("hazelnuts");
+
+    private PancakeService pancakeService;
+    private PancakeDemand demand;
+
+    @BeforeEach
+    void setUp() {
+        pancakeService = new PancakeService(new InMemoryOrderRepository(),
+                new PancakeManagerImpl(new PancakeBuilderFactoryImpl()), new OrderFactoryImp());
+        demand = new PancakeDemand();
+        pancakeService.addListener(demand);
+    }
+
+    @Test
+    void totals_ShouldAddUpIdenticalRecipes_WhenOrdersAreCompleted() throws Exception {
+        UUID first = createOrder(DARK_WHIPPED, 2, HAZELNUTS, 1);
+        UUID second = createOrder(WHIPPED_DARK, 3, HAZELNUTS, 0);
+        UUID notCompleted = pancakeService.createOrder(1, 1).getOrderId();
+        pancakeService.addPancakes(notCompleted, DARK_WHIPPED, 7);
+
+        assertEquals(0, demand.demandFor(DARK_WHIPPED));
+
+        pancakeService.completeOrder(first);
+        pancakeService.completeOrder(second);
+
+        assertEquals(5, demand.demandFor(DARK_WHIPPED));
+        assertEquals(5, demand.demandFor(WHIPPED_DARK));
+        assertEquals(1, demand.demandFor(HAZELNUTS));
+        assertEquals(Set.of(first, second), demand.ordersContaining(WHIPPED_DARK));
+        assertEquals(Map.of(new Pancake(DARK_WHIPPED), 5L, new Pancake(HAZELNUTS), 1L), demand.totals());
+    }
+
+    @Test
+    void totals_ShouldBeWithdrawn_WhenOrdersArePreparedInBulk() {
+        UUID first = createOrder(DARK_WHIPPED, 2, HAZELNUTS, 1);
+        UUID second = createOrder(DARK_WHIPPED, 3, HAZELNUTS, 0);
+        UUID cancelled = createOrder(HAZELNUTS, 4, HAZELNUTS, 0);
+        pancakeService.completeOrder(first);
+        pancakeService.completeOrder(second);
+        pancakeService.completeOrder(cancelled);
+        pancakeService.cancelOrder(cancelled);
+
+        assertEquals(1, demand.demandFor(HAZELNUTS));
+
+        pancakeService.prepareOrders(demand.ordersContaining(DARK_WHIPPED)).forEach(result -> assertTrue(result.isSuccess()));
+
+        assertEquals(0, demand.demandFor(DARK_WHIPPED));
+        assertEquals(0, demand.demandFor(HAZELNUTS));
+        assertTrue(demand.ordersContaining(DARK_WHIPPED).isEmpty());
+        assertTrue(demand.totals().isEmpty());
+    }
+
+    @Test
+    void testConcurrentCompletionsAndPreparations() throws Exception {
+        int orderCount = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        IntStream.range(0, orderCount).forEach(i -> executor.submit(() -> {
+            UUID orderId = createOrder(DARK_WHIPPED, 2, HAZELNUTS, 1);
+            pancakeService.completeOrder(orderId);
+            if (i % 2 == 0) {
+                pancakeService.prepareOrder(orderId);
+            }
+        }));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(orderCount, demand.demandFor(DARK_WHIPPED));
+        assertEquals(orderCount / 2, demand.demandFor(HAZELNUTS));
+        assertEquals(orderCount / 2, demand.ordersContaining(HAZELNUTS).size());
+    }
+
+    private UUID createOrder(List<String> recipe, int count, List<String> otherRecipe, int otherCount) {
+        UUID orderId = pancakeService.createOrder(1, 1).getOrderId();
+        pancakeService.addPancakes(orderId, recipe, count);
+        pancakeService.addPancakes(orderId, otherRecipe, otherCount);
+        return orderId;
+    }
+}
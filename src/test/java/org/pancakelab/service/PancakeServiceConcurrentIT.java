@@ -5,10 +5,18 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.pancakelab.model.ApprovedIngredients;
 import org.pancakelab.model.PancakeOperationResult;
+import org.junit.jupiter.api.io.TempDir;
+import org.pancakelab.model.Order;
+import org.pancakelab.model.OrderInterface;
+import org.pancakelab.model.OrderStatus;
 import org.pancakelab.model.pancakes.InMemoryOrderRepository;
+import org.pancakelab.model.pancakes.JournaledOrderRepository;
+import org.pancakelab.model.pancakes.OrderRepository;
+import org.pancakelab.model.pancakes.ShardedOrderRepository;
 import org.pancakelab.model.pancakes.PancakeBuilderFactoryImpl;
 import org.pancakelab.model.pancakes.PancakeBuilderImpl;
 
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.stream.IntStream;
@@ -18,6 +26,9 @@ class PancakeServiceConcurrentIT {
     private PancakeService pancakeService;
     private static final int THREAD_COUNT = 40;
 
+    @TempDir
+    Path journalDirectory;
+
     @BeforeEach
     void setUp() {
         pancakeService = new PancakeService(new InMemoryOrderRepository(), new PancakeManagerImpl(new PancakeBuilderFactoryImpl()), new OrderFactoryImp());
@@ -89,6 +100,80 @@ class PancakeServiceConcurrentIT {
         assertEquals(THREAD_COUNT, pancakes.size(), "Total pancakes should match concurrent additions");
     }
 
+    @Test
+    void testConcurrentAdditionAndCancellation() throws Exception {
+        try (JournaledOrderRepository journaled = new JournaledOrderRepository(journalDirectory)) {
+            for (OrderRepository repository : List.of(new InMemoryOrderRepository(), new ShardedOrderRepository(), journaled)) {
+                // the interleaving the race produces: a save that decided on INITIATED lands after cancel + delete
+                Order late = new Order(1, 102);
+                late.updateRepository(repository);
+                late.cancel();
+                late.updateRepository(repository);
+                repository.save(late);
+                assertTrue(repository.findById(late.getId()).isEmpty(), "A late save must not bring a cancelled order back");
+
+                PancakeService service = new PancakeService(repository, new PancakeManagerImpl(new PancakeBuilderFactoryImpl()), new OrderFactoryImp());
+                ExecutorService executor = Executors.newFixedThreadPool(2);
+                for (int i = 0; i < 200; i++) {
+                    UUID orderId = service.createOrder(1, 101).getOrderId();
+                    CountDownLatch start = new CountDownLatch(1);
+                    Future<?> addition = executor.submit(() -> {
+                        start.await();
+                        return service.addPancakes(orderId, List.of(ApprovedIngredients.INGREDIENT_DARK_CHOCOLATE), 1);
+                    });
+                    Future<?> cancellation = executor.submit(() -> {
+                        start.await();
+                        return service.cancelOrder(orderId);
+                    });
+                    start.countDown();
+                    addition.get(5, TimeUnit.SECONDS);
+                    cancellation.get(5, TimeUnit.SECONDS);
+
+                    assertTrue(repository.findById(orderId).isEmpty(), "A cancelled order must not be saved back");
+                }
+                executor.shutdown();
+                assertTrue(repository.findByStatus(OrderStatus.CANCELLED).isEmpty());
+                assertTrue(repository.findAll().isEmpty());
+            }
+        }
+        try (JournaledOrderRepository reopened = new JournaledOrderRepository(journalDirectory)) {
+            assertTrue(reopened.findAll().isEmpty(), "A cancelled order must not come back after a restart");
+        }
+    }
+
+    @Test
+    void testListenerEventsFollowChangesOfOneOrder() throws Exception {
+        Map<UUID, List<String>> events = new ConcurrentHashMap<>();
+        pancakeService.addListener(new OrderListener() {
+            @Override
+            public void onPancakesChanged(OrderInterface order) {
+                events.computeIfAbsent(order.getId(), id -> Collections.synchronizedList(new ArrayList<>())).add("changed");
+            }
+
+            @Override
+            public void onCancelled(OrderInterface order) {
+                events.computeIfAbsent(order.getId(), id -> Collections.synchronizedList(new ArrayList<>())).add("cancelled");
+            }
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<UUID> orderIds = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            UUID orderId = createOrder(1, 101);
+            orderIds.add(orderId);
+            for (int j = 0; j < 3; j++) {
+                executor.submit(() -> pancakeService.addPancakes(orderId, List.of(ApprovedIngredients.INGREDIENT_DARK_CHOCOLATE), 1));
+            }
+            executor.submit(() -> pancakeService.cancelOrder(orderId));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        for (UUID orderId : orderIds) {
+            List<String> received = events.get(orderId);
+            assertEquals("cancelled", received.get(received.size() - 1), "No event may arrive after the cancellation");
+        }
+    }
+
     @Test
     void testConcurrentOrderCancellation() throws InterruptedException {
         List<UUID> orderIds = new ArrayList<>();
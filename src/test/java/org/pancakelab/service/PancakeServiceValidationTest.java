@@ -6,8 +6,13 @@ import org.pancakelab.model.*;
 import org.pancakelab.model.pancakes.InMemoryOrderRepository;
 import org.pancakelab.model.pancakes.PancakeBuilderFactory;
 import org.pancakelab.model.pancakes.PancakeBuilderFactoryImpl;
+import org.pancakelab.model.pancakes.ShardedOrderRepository;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -53,6 +58,21 @@ class PancakeServiceValidationTest {
         assertEquals("Invalid building or room number.", result.getMessage());
     }
 
+    @Test
+    void createOrder_ShouldReturnFailure_WhenRepositoryCannotSave() {
+        pancakeService = new PancakeService(new InMemoryOrderRepository() {
+            @Override
+            public void save(OrderInterface order) {
+                throw new UncheckedIOException(new IOException("disk full"));
+            }
+        }, pancakeManager, orderFactory);
+
+        PancakeOperationResult result = pancakeService.createOrder(2, 202);
+
+        assertFalse(result.isSuccess());
+        assertEquals(ErrorCode.UNEXPECTED, result.getErrorCode());
+    }
+
     /** ADD PANCAKES TESTS **/
     @Test
     void addPancakes_ShouldReturnFailure_WhenIngredientIsValid() {
@@ -111,6 +131,69 @@ class PancakeServiceValidationTest {
     }
     
 
+    /** SUBMIT CART TESTS **/
+    @Test
+    void submitCart_ShouldApplyAllLinesAndComplete_WhenCartIsValid() {
+        PancakeOperationResult result = pancakeService.submitCart(validOrderId, List.of(
+                CartLine.add(List.of("dark chocolate"), 3),
+                CartLine.add(List.of("milk chocolate", "hazelnuts"), 1),
+                CartLine.remove(pancakeDescription(List.of("dark chocolate")), 1)), true);
+
+        assertTrue(result.isSuccess());
+        assertEquals(List.of(pancakeDescription(List.of("dark chocolate")),
+                             pancakeDescription(List.of("dark chocolate")),
+                             pancakeDescription(List.of("milk chocolate", "hazelnuts"))),
+                     pancakeService.viewOrder(validOrderId).getPancakes());
+        assertTrue(pancakeService.listCompletedOrders().contains(validOrderId));
+    }
+
+    @Test
+    void submitCart_ShouldLeaveOrderUnchanged_WhenAnyLineIsInvalid() {
+        pancakeService.addPancakes(validOrderId, List.of("dark chocolate"), 1);
+
+        PancakeOperationResult result = pancakeService.submitCart(validOrderId, List.of(
+                CartLine.remove(pancakeDescription(List.of("dark chocolate")), 1),
+                CartLine.add(List.of("mustard"), 2)), true);
+
+        assertFalse(result.isSuccess());
+        assertEquals("Ingredient invalid value", result.getMessage());
+        assertEquals(List.of(pancakeDescription(List.of("dark chocolate"))), pancakeService.viewOrder(validOrderId).getPancakes());
+        assertFalse(pancakeService.listCompletedOrders().contains(validOrderId));
+    }
+
+    @Test
+    void submitCart_ShouldReturnFailure_WhenOrderIsCompleted() {
+        pancakeService.completeOrder(validOrderId);
+
+        PancakeOperationResult result = pancakeService.submitCart(validOrderId, List.of(CartLine.add(List.of("dark chocolate"), 1)), false);
+
+        assertFalse(result.isSuccess());
+        assertEquals("Order is not in the state in which changing pancakes is possible", result.getMessage());
+        assertTrue(pancakeService.viewOrder(validOrderId).getPancakes().isEmpty());
+    }
+
+    @Test
+    void submitCart_ShouldCapPancakesPerOrder() {
+        PancakeOperationResult result = pancakeService.submitCart(validOrderId, List.of(
+                CartLine.add(List.of("dark chocolate"), 150),
+                CartLine.add(List.of("whipped cream"), 100),
+                CartLine.add(List.of("hazelnuts"), 100),
+                CartLine.add(List.of("milk chocolate"), 100),
+                CartLine.add(List.of("dark chocolate", "hazelnuts"), 100),
+                CartLine.add(List.of("dark chocolate", "whipped cream"), 100)), false);
+
+        assertTrue(result.isSuccess());
+        assertEquals(PancakeManagerImpl.MAX_PANCAKE_PER_ORDER, pancakeService.viewOrder(validOrderId).getPancakes().size());
+    }
+
+    @Test
+    void submitCart_ShouldReturnFailure_WhenIngredientsAreEmpty() {
+        PancakeOperationResult result = pancakeService.submitCart(validOrderId, List.of(CartLine.add(List.of(), 1)), false);
+
+        assertFalse(result.isSuccess());
+        assertEquals("Ingredient list is null or empty.", result.getMessage());
+    }
+
     /** VIEW ORDER TESTS **/
     @Test
     void viewOrder_ShouldReturnPancakeList_WhenOrderExists() {
@@ -217,6 +300,122 @@ class PancakeServiceValidationTest {
         assertFalse(result.isSuccess());
     }
 
+    /** DELIVER BUILDING TESTS **/
+    @Test
+    void deliverBuilding_ShouldDeliverPreparedOrdersGroupedByRoom() {
+        pancakeService = new PancakeService(new ShardedOrderRepository(), pancakeManager, orderFactory);
+        UUID room7 = preparedOrder(3, 7, "dark chocolate");
+        UUID room2 = preparedOrder(3, 2, "hazelnuts");
+        UUID room7Again = preparedOrder(3, 7, "whipped cream");
+        UUID otherBuilding = preparedOrder(4, 1, "dark chocolate");
+        UUID notPrepared = pancakeService.createOrder(3, 1).getOrderId();
+        pancakeService.completeOrder(notPrepared);
+
+        DeliveryManifest manifest = pancakeService.deliverBuilding(3);
+
+        assertTrue(manifest.isSuccess());
+        assertEquals(3, manifest.getOrderCount());
+        assertEquals(2, manifest.getStops().size());
+        assertEquals(2, manifest.getStops().get(0).room());
+        assertEquals(List.of(room2), manifest.getStops().get(0).orderIds());
+        assertEquals(7, manifest.getStops().get(1).room());
+        assertEquals(Set.of(room7, room7Again), Set.copyOf(manifest.getStops().get(1).orderIds()));
+        assertEquals(2, manifest.getStops().get(1).pancakes().size());
+        assertFalse(pancakeService.viewOrder(room7).isSuccess(), "Delivered orders are removed");
+        assertTrue(pancakeService.viewOrder(otherBuilding).isSuccess());
+        assertTrue(pancakeService.listCompletedOrders().contains(notPrepared));
+    }
+
+    @Test
+    void deliverOrders_ShouldReportOrdersThatCannotBeDelivered() {
+        UUID prepared = preparedOrder(1, 5, "dark chocolate");
+        UUID missing = UUID.randomUUID();
+
+        DeliveryManifest manifest = pancakeService.deliverOrders(List.of(prepared, validOrderId, missing));
+
+        assertTrue(manifest.isSuccess());
+        assertEquals(1, manifest.getOrderCount());
+        assertEquals(List.of(prepared), manifest.getStops().get(0).orderIds());
+        assertEquals(2, manifest.getFailures().size());
+        assertEquals("Cannot change status of the order to DELIVERED", manifest.getFailures().get(1).getMessage());
+        assertEquals("Order not found.", manifest.getFailures().get(0).getMessage());
+    }
+
+    @Test
+    void deliverBuilding_ShouldReturnFailure_WhenBuildingIsInvalid() {
+        DeliveryManifest manifest = pancakeService.deliverBuilding(0);
+
+        assertFalse(manifest.isSuccess());
+        assertEquals("Invalid building number.", manifest.getMessage());
+    }
+
+    @Test
+    void failures_ShouldCarryErrorCodes() {
+        PancakeOperationResult nullId = pancakeService.completeOrder(null);
+        PancakeOperationResult missing = pancakeService.completeOrder(UUID.randomUUID());
+        PancakeOperationResult invalidIngredient = pancakeService.addPancakes(validOrderId, List.of("sand"), 1);
+        pancakeService.completeOrder(validOrderId);
+        PancakeOperationResult tooLate = pancakeService.addPancakes(validOrderId, List.of("dark chocolate"), 1);
+        PancakeOperationResult prepared = pancakeService.prepareOrder(validOrderId);
+        PancakeOperationResult preparedAgain = pancakeService.prepareOrder(validOrderId);
+
+        assertEquals(ErrorCode.ORDER_ID_NULL, nullId.getErrorCode());
+        assertSame(nullId, pancakeService.cancelOrder(null));
+        assertEquals(ErrorCode.ORDER_NOT_FOUND, missing.getErrorCode());
+        assertEquals(ErrorCode.INVALID_INGREDIENT, invalidIngredient.getErrorCode());
+        assertEquals("Ingredient invalid value", invalidIngredient.getMessage());
+        assertEquals(ErrorCode.PANCAKES_NOT_CHANGEABLE, tooLate.getErrorCode());
+        assertEquals(ErrorCode.NONE, prepared.getErrorCode());
+        assertEquals(ErrorCode.INVALID_STATUS_TRANSITION, preparedAgain.getErrorCode());
+        assertEquals("Cannot change status of the order to PREPARED", preparedAgain.getMessage());
+        assertEquals(ErrorCode.INVALID_BUILDING, pancakeService.deliverBuilding(0).getErrorCode());
+    }
+
+    /** LISTENER TESTS **/
+
+    @Test
+    void notifyListeners_ShouldIsolateFailingListener_WhenListenerThrows() {
+        List<String> events = new ArrayList<>();
+        pancakeService.addListener(new OrderListener() {
+            @Override
+            public void onCreated(OrderInterface order) {
+                throw new IllegalStateException("broken listener");
+            }
+
+            @Override
+            public void onPancakesChanged(OrderInterface order) {
+                throw new IllegalStateException("broken listener");
+            }
+        });
+        pancakeService.addListener(new OrderListener() {
+            @Override
+            public void onCreated(OrderInterface order) {
+                events.add("created");
+            }
+
+            @Override
+            public void onPancakesChanged(OrderInterface order) {
+                events.add("changed");
+            }
+        });
+
+        PancakeOperationResult created = pancakeService.createOrder(2, 20);
+        PancakeOperationResult added = pancakeService.addPancakes(created.getOrderId(), List.of("dark chocolate"), 1);
+
+        assertTrue(created.isSuccess());
+        assertTrue(added.isSuccess());
+        assertEquals(List.of("created", "changed"), events);
+        assertEquals(1, pancakeService.viewOrder(created.getOrderId()).getPancakes().size());
+    }
+
+    private UUID preparedOrder(int building, int room, String ingredient) {
+        UUID orderId = pancakeService.createOrder(building, room).getOrderId();
+        pancakeService.addPancakes(orderId, List.of(ingredient), 1);
+        pancakeService.completeOrder(orderId);
+        pancakeService.prepareOrder(orderId);
+        return orderId;
+    }
+
     private String pancakeDescription(List<String> ingredients) {
         return "Delicious pancake with %s!".formatted(String.join(", ", ingredients));
     }
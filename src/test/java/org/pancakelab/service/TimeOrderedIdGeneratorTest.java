@@ -0,0 +1,67 @@
+package org.pancakelab.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.OrderInterface;
+
+class TimeOrderedIdGeneratorTest {
+
+    private final TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+
+    @Test
+    void nextId_ShouldIncreaseStrictly_WhenCalledOnOneThread() {
+        UUID previous = generator.nextId();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = generator.nextId();
+            assertTrue(next.compareTo(previous) > 0, "Ids of one thread must increase");
+            previous = next;
+        }
+    }
+
+    @Test
+    void nextId_ShouldBeVersion7WithTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = generator.nextId();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        long timestamp = TimeOrderedIdGenerator.timestampOf(id);
+        assertTrue(timestamp >= before && timestamp <= after);
+    }
+
+    @Test
+    void testConcurrentIdsAreUnique() throws Exception {
+        int threads = 16;
+        int idsPerThread = 10_000;
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        IntStream.range(0, threads).forEach(i -> executor.submit(() -> {
+            for (int j = 0; j < idsPerThread; j++) {
+                ids.add(generator.nextId());
+            }
+        }));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(threads * idsPerThread, ids.size());
+    }
+
+    @Test
+    void createOrder_ShouldUseGeneratorId_WhenFactoryHasGenerator() {
+        UUID id = new UUID(1, 2);
+        OrderInterface order = new OrderFactoryImp(() -> id).createOrder(1, 1);
+
+        assertEquals(id, order.getId());
+    }
+}